@@ -0,0 +1,618 @@
+package dense_graph;
+
+import graph.IIndexedGraph;
+import graph.IntEdgeConsumer;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Represents a graph backed by an adjacency bit matrix, suited for graphs in which most vertices are connected.
+ * Every vertex is assigned a dense index in the range [0, vertexCount()). Row i of the matrix holds a bit for every
+ * possible end vertex, so checking, adding or removing an edge is a single word operation.
+ * Weights are kept in a separate int matrix with one cell per possible edge, which is only allocated once the first
+ * non-zero weight is stored, so unweighted graphs pay nothing for them.
+ */
+public final class DenseGraph<T> implements IGraph<T>, IIndexedGraph<T> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final long MAX_MATRIX_LENGTH = Integer.MAX_VALUE - 8;
+
+    private T[] objects;
+    private final Map<T, Integer> indices;
+    private int size;
+    private int capacity;
+    private int words;
+    private long[] matrix;
+    private int[] weights;
+    private int edgeCount;
+
+    public DenseGraph(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new empty {@link DenseGraph} with room for the given amount of vertices.
+     * @param capacity The expected amount of vertices. Cannot be negative.
+     *
+     * @throws IllegalArgumentException If the capacity is negative, or its matrix does not fit in an array.
+     */
+    @SuppressWarnings("unchecked")
+    public DenseGraph(int capacity){
+        if(capacity < 0)
+            throw new IllegalArgumentException("Capacity is negative.");
+        if(matrixLength(capacity) > MAX_MATRIX_LENGTH)
+            throw new IllegalArgumentException("Capacity is too large for an adjacency matrix.");
+        this.capacity = Math.max(capacity, 1);
+        this.words = wordsFor(this.capacity);
+        this.objects = (T[]) new Object[this.capacity];
+        this.indices = new HashMap<>(this.capacity * 4 / 3 + 1);
+        this.matrix = new long[(int) matrixLength(this.capacity)];
+    }
+
+    private static int wordsFor(int capacity){
+        return (int) (((long) capacity + 63) >>> 6);
+    }
+
+    /**
+     * @return The amount of words in the matrix of the given capacity, which can exceed the length of an array.
+     */
+    private static long matrixLength(int capacity){
+        return (long) capacity * wordsFor(capacity);
+    }
+
+    private static long weightsLength(int capacity){
+        return (long) capacity * capacity;
+    }
+
+    private int weightAt(int start, int end){
+        return weights == null ? 0 : weights[start * capacity + end];
+    }
+
+    /**
+     * Grows the matrix so it can hold at least the given amount of vertices.
+     */
+    private void ensureCapacity(int required){
+        if(required <= capacity)
+            return;
+        if(matrixLength(required) > MAX_MATRIX_LENGTH
+                || (weights != null && weightsLength(required) > MAX_MATRIX_LENGTH))
+            throw new IllegalStateException("The graph has no room left for another vertex.");
+        int newCapacity = (int) Math.min(2L * capacity, Integer.MAX_VALUE);
+        if(newCapacity < required || matrixLength(newCapacity) > MAX_MATRIX_LENGTH
+                || (weights != null && weightsLength(newCapacity) > MAX_MATRIX_LENGTH))
+            newCapacity = required;
+        int newWords = wordsFor(newCapacity);
+        long[] newMatrix = new long[(int) matrixLength(newCapacity)];
+        for(int row = 0; row < size; row++)
+            System.arraycopy(matrix, row * words, newMatrix, row * newWords, words);
+        if(weights != null){
+            int[] newWeights = new int[(int) weightsLength(newCapacity)];
+            for(int row = 0; row < size; row++)
+                System.arraycopy(weights, row * capacity, newWeights, row * newCapacity, size);
+            weights = newWeights;
+        }
+        objects = Arrays.copyOf(objects, newCapacity);
+        matrix = newMatrix;
+        words = newWords;
+        capacity = newCapacity;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int indexOf(T object){
+        Objects.requireNonNull(object, "Object is null.");
+        Integer index = indices.get(object);
+        if(index == null)
+            throw new NoSuchElementException("The object is not a vertex in the graph.");
+        return index;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T objectAt(int index){
+        Objects.checkIndex(index, size);
+        return objects[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasEdgeAt(int start, int end){
+        return (matrix[start * words + (end >>> 6)] & (1L << end)) != 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int degreeAt(int index){
+        return rowCount(index);
+    }
+
+    /**
+     * Returns the index of the first successor of the vertex with the given index, that is greater than or equal to
+     * the given end index. Allows iterating over the successors like a cursor:
+     * {@code for(int end = graph.nextSuccessor(i, 0); end >= 0; end = graph.nextSuccessor(i, end + 1))}
+     * @param index The index.
+     * @param from The end index to start searching from.
+     *
+     * @return The index of the next successor, or -1 if there is none.
+     */
+    public int nextSuccessor(int index, int from){
+        if(from >= size)
+            return -1;
+        int word = from >>> 6;
+        long bits = matrix[index * words + word] & (-1L << from);
+        while(true){
+            if(bits != 0)
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            if(++word == words)
+                return -1;
+            bits = matrix[index * words + word];
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachSuccessorIndex(int index, IntConsumer action){
+        for(int word = 0; word < words; word++){
+            long bits = matrix[index * words + word];
+            while(bits != 0){
+                action.accept((word << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachEdgeIndex(int index, IntEdgeConsumer action){
+        for(int word = 0; word < words; word++){
+            long bits = matrix[index * words + word];
+            while(bits != 0){
+                int end = (word << 6) + Long.numberOfTrailingZeros(bits);
+                action.accept(end, weightAt(index, end));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    private void setBit(int start, int end){
+        matrix[start * words + (end >>> 6)] |= 1L << end;
+    }
+
+    private void clearBit(int start, int end){
+        matrix[start * words + (end >>> 6)] &= ~(1L << end);
+    }
+
+    private int rowCount(int row){
+        int count = 0;
+        for(int word = row * words; word < (row + 1) * words; word++)
+            count += Long.bitCount(matrix[word]);
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addVertex(T object){
+        Objects.requireNonNull(object, "Object is null.");
+        if(indices.containsKey(object))
+            throw new IllegalStateException("The Vertex already exists in the graph.");
+        ensureCapacity(size + 1);
+        objects[size] = object;
+        indices.put(object, size++);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addVertices(List<T> objects){
+        Objects.requireNonNull(objects, "List is null.");
+        ensureCapacity(size + objects.size());
+        for(T object : objects)
+            addVertex(object);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addEdge(T start, T end){
+        storeEdge(start, end, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addEdge(T start, T end, int weight){
+        storeEdge(start, end, weight);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addEdges(T start, List<T> ends){
+        Objects.requireNonNull(ends, "List is null.");
+        for(T end : ends)
+            storeEdge(start, end, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addEdges(T start, List<T> ends, List<Integer> weights){
+        Objects.requireNonNull(ends, "List is null.");
+        Objects.requireNonNull(weights, "List is null.");
+        if(weights.size() != ends.size())
+            throw new IllegalArgumentException("The List of weights is not the same length as the list of end objects.");
+        if(weights.contains(null))
+            throw new NullPointerException("A weight is null.");
+        for(int i = 0; i < ends.size(); i++)
+            storeEdge(start, ends.get(i), weights.get(i));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void connect(T start, T end){
+        storeEdge(start, end, 0);
+        storeEdge(end, start, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void connect(T start, T end, int weight){
+        storeEdge(start, end, weight);
+        storeEdge(end, start, weight);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void connectAll(T start, List<T> ends){
+        Objects.requireNonNull(ends, "List is null.");
+        for(T end : ends){
+            storeEdge(start, end, 0);
+            storeEdge(end, start, 0);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void connectAll(T start, List<T> ends, List<Integer> weights){
+        Objects.requireNonNull(ends, "List is null.");
+        Objects.requireNonNull(weights, "List is null.");
+        if(weights.size() != ends.size())
+            throw new IllegalArgumentException("The List of weights is not the same length as the list of end objects.");
+        if(weights.contains(null))
+            throw new NullPointerException("A weight is null.");
+        for(int i = 0; i < ends.size(); i++){
+            int weight = weights.get(i);
+            storeEdge(start, ends.get(i), weight);
+            storeEdge(ends.get(i), start, weight);
+        }
+    }
+
+    /**
+     * Stores a directed edge starting at the given object and ending in the other, with the given weight.
+     * @param start The start object. Cannot be null.
+     * @param end The end object. Cannot be null.
+     * @param weight The weight. Cannot be negative.
+     *
+     * @throws IllegalStateException If an edge already existed between the two objects.
+     * @throws IllegalArgumentException If the weight is negative.
+     * @throws NoSuchElementException If the start or end object is not a vertex in the graph.
+     * @throws IllegalStateException If the weight is the first non-zero weight, and the weight matrix for the current
+     *                               capacity does not fit in an array.
+     */
+    private void storeEdge(T start, T end, int weight){
+        int startIndex = indexOf(start);
+        int endIndex = indexOf(end);
+        if(weight < 0)
+            throw new IllegalArgumentException("Weight is negative.");
+        if(hasEdgeAt(startIndex, endIndex))
+            throw new IllegalStateException("Edge already exists in the graph.");
+        if(weight != 0 && weights == null){
+            if(weightsLength(capacity) > MAX_MATRIX_LENGTH)
+                throw new IllegalStateException("The graph is too large to store weights.");
+            weights = new int[(int) weightsLength(capacity)];
+        }
+        setBit(startIndex, endIndex);
+        if(weights != null)
+            weights[startIndex * capacity + endIndex] = weight;
+        edgeCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The last vertex takes over the index of the removed vertex, so the indices remain dense.
+     */
+    @Override
+    public void removeVertex(T object){
+        Integer boxed = indices.remove(object);
+        if(boxed == null)
+            return;
+        int index = boxed;
+        int last = size - 1;
+        edgeCount -= rowCount(index);
+        for(int row = 0; row < size; row++){
+            if(row != index && hasEdgeAt(row, index))
+                edgeCount--;
+            clearBit(row, index);
+        }
+        if(index != last){
+            System.arraycopy(matrix, last * words, matrix, index * words, words);
+            for(int row = 0; row < last; row++){
+                if(hasEdgeAt(row, last)){
+                    setBit(row, index);
+                    clearBit(row, last);
+                }
+            }
+            objects[index] = objects[last];
+            indices.put(objects[index], index);
+        }
+        Arrays.fill(matrix, last * words, size * words, 0L);
+        if(weights != null)
+            moveWeights(index, last);
+        objects[last] = null;
+        size--;
+    }
+
+    /**
+     * Moves the weights of the last vertex to the given index, overwriting the weights of the vertex at that index.
+     * Cells without an edge are kept at zero.
+     */
+    private void moveWeights(int index, int last){
+        if(index != last){
+            System.arraycopy(weights, last * capacity, weights, index * capacity, size);
+            for(int row = 0; row < size; row++)
+                weights[row * capacity + index] = weights[row * capacity + last];
+        }
+        Arrays.fill(weights, last * capacity, last * capacity + size, 0);
+        for(int row = 0; row < size; row++)
+            weights[row * capacity + last] = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeEdge(T start, T end){
+        Integer startIndex = indices.get(start);
+        Integer endIndex = indices.get(end);
+        if(startIndex == null || endIndex == null || !hasEdgeAt(startIndex, endIndex))
+            return;
+        clearBit(startIndex, endIndex);
+        if(weights != null)
+            weights[startIndex * capacity + endIndex] = 0;
+        edgeCount--;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void disconnect(T start, T end){
+        removeEdge(start, end);
+        removeEdge(end, start);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<T> getVertices(){
+        return new HashSet<>(indices.keySet());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachVertex(Consumer<T> action){
+        for(int i = 0; i < size; i++)
+            action.accept(objects[i]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachSuccessor(T object, Consumer<T> action){
+        int index = indexOf(object);
+        for(int word = 0; word < words; word++){
+            long bits = matrix[index * words + word];
+            while(bits != 0){
+                action.accept(objects[(word << 6) + Long.numberOfTrailingZeros(bits)]);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachEdge(T start, ObjIntConsumer<T> action){
+        int index = indexOf(start);
+        for(int word = 0; word < words; word++){
+            long bits = matrix[index * words + word];
+            while(bits != 0){
+                int end = (word << 6) + Long.numberOfTrailingZeros(bits);
+                action.accept(objects[end], weightAt(index, end));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getSuccessors(T object){
+        int index = indexOf(object);
+        List<T> successors = new ArrayList<>();
+        for(int word = 0; word < words; word++){
+            long bits = matrix[index * words + word];
+            while(bits != 0){
+                successors.add(objects[(word << 6) + Long.numberOfTrailingZeros(bits)]);
+                bits &= bits - 1;
+            }
+        }
+        return successors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getPredecessors(T object){
+        int index = indexOf(object);
+        List<T> predecessors = new ArrayList<>();
+        for(int row = 0; row < size; row++)
+            if(hasEdgeAt(row, index))
+                predecessors.add(objects[row]);
+        return predecessors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getWeight(T start, T end){
+        int startIndex = indexOf(start);
+        int endIndex = indexOf(end);
+        if(!hasEdgeAt(startIndex, endIndex))
+            throw new NoSuchElementException("No edge between the two objects was found.");
+        return weightAt(startIndex, endIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getDegree(T object){
+        return rowCount(indexOf(object));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getInDegree(T object){
+        int index = indexOf(object);
+        int inDegree = 0;
+        for(int row = 0; row < size; row++)
+            if(hasEdgeAt(row, index))
+                inDegree++;
+        return inDegree;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasVertex(T object){
+        return indices.containsKey(object);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasEdge(T start, T end){
+        return hasEdgeAt(indexOf(start), indexOf(end));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int vertexCount(){
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int edgeCount(){
+        return edgeCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear(){
+        Arrays.fill(objects, null);
+        Arrays.fill(matrix, 0L);
+        indices.clear();
+        weights = null;
+        size = 0;
+        edgeCount = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DenseGraph<T> copy(){
+        DenseGraph<T> copy = new DenseGraph<>(capacity);
+        System.arraycopy(objects, 0, copy.objects, 0, size);
+        copy.indices.putAll(indices);
+        System.arraycopy(matrix, 0, copy.matrix, 0, matrix.length);
+        copy.weights = weights == null ? null : weights.clone();
+        copy.size = size;
+        copy.edgeCount = edgeCount;
+        return copy;
+    }
+
+    @Override
+    public String toString(){
+        StringBuilder builder = new StringBuilder();
+        builder.append("DenseGraph[");
+        for(int i = 0; i < size; i++){
+            builder.append("Vertex[").append(objects[i]).append("] -> {");
+            for(T end : getSuccessors(objects[i]))
+                builder.append("Vertex[").append(end).append(']');
+            builder.append("}, ");
+        }
+        if(size > 0)
+            builder.delete(builder.length() - 2, builder.length());
+        builder.append("]");
+        return builder.toString();
+    }
+}
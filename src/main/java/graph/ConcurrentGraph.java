@@ -0,0 +1,475 @@
+package graph;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Represents a thread-safe graph.
+ * The outgoing edges of every vertex are kept in a concurrent map, so queries never block and iteration is weakly
+ * consistent: it reflects the graph at some point during the iteration and never throws a
+ * {@link ConcurrentModificationException}.
+ * Every mutation only locks the stripes of the vertices it touches, so mutations of different vertices never contend
+ * on a shared lock. Both directions of {@link #connect(Object, Object)} and {@link #disconnect(Object, Object)} are
+ * applied atomically. Removing a vertex, clearing or copying the graph are rare, and lock every stripe in order, which
+ * excludes all other mutations.
+ */
+public final class ConcurrentGraph<T> implements IGraph<T> {
+
+    private static final int STRIPES = 64;
+
+    private final Map<Vertex<T>, Map<Vertex<T>, Edge<T>>> adjacencyMap;
+    private final ReentrantLock[] stripes;
+    private final LongAdder edgeCount;
+
+    public ConcurrentGraph(){
+        this.adjacencyMap = new ConcurrentHashMap<>();
+        this.stripes = new ReentrantLock[STRIPES];
+        for(int i = 0; i < STRIPES; i++)
+            stripes[i] = new ReentrantLock();
+        this.edgeCount = new LongAdder();
+    }
+
+    private int stripeIndex(Vertex<T> vertex){
+        int hash = vertex.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private ReentrantLock stripe(Vertex<T> vertex){
+        return stripes[stripeIndex(vertex)];
+    }
+
+    /**
+     * Locks the stripes of both vertices, lowest stripe first to avoid deadlocks.
+     */
+    private void lockBoth(Vertex<T> first, Vertex<T> second){
+        int a = stripeIndex(first);
+        int b = stripeIndex(second);
+        stripes[Math.min(a, b)].lock();
+        if(a != b)
+            stripes[Math.max(a, b)].lock();
+    }
+
+    private void unlockBoth(Vertex<T> first, Vertex<T> second){
+        int a = stripeIndex(first);
+        int b = stripeIndex(second);
+        if(a != b)
+            stripes[Math.max(a, b)].unlock();
+        stripes[Math.min(a, b)].unlock();
+    }
+
+    /**
+     * Locks every stripe in order, which excludes all other mutations.
+     */
+    private void lockAll(){
+        for(ReentrantLock stripe : stripes)
+            stripe.lock();
+    }
+
+    private void unlockAll(){
+        for(int i = STRIPES - 1; i >= 0; i--)
+            stripes[i].unlock();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addVertex(T object){
+        Vertex<T> vertex = new Vertex<>(object);
+        ReentrantLock lock = stripe(vertex);
+        lock.lock();
+        try{
+            if(adjacencyMap.putIfAbsent(vertex, new ConcurrentHashMap<>()) != null)
+                throw new IllegalStateException("The Vertex already exists in the graph.");
+        }finally{
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addVertices(List<T> objects){
+        Objects.requireNonNull(objects, "List is null.");
+        for(T object : objects)
+            addVertex(object);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addEdge(T start, T end){
+        addEdge(start, end, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addEdge(T start, T end, int weight){
+        Vertex<T> startVertex = new Vertex<>(start);
+        Vertex<T> endVertex = new Vertex<>(end);
+        Edge<T> edge = new Edge<>(startVertex, endVertex, weight);
+        ReentrantLock lock = stripe(startVertex);
+        lock.lock();
+        try{
+            Map<Vertex<T>, Edge<T>> edgeMap = edgeMapOf(startVertex, endVertex);
+            if(edgeMap.containsKey(endVertex))
+                throw new IllegalStateException("Edge already exists in the graph.");
+            edgeMap.put(endVertex, edge);
+            edgeCount.increment();
+        }finally{
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addEdges(T start, List<T> ends){
+        Objects.requireNonNull(ends, "List is null.");
+        for(T end : ends)
+            addEdge(start, end, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addEdges(T start, List<T> ends, List<Integer> weights){
+        Objects.requireNonNull(ends, "List is null.");
+        Objects.requireNonNull(weights, "List is null.");
+        if(weights.size() != ends.size())
+            throw new IllegalArgumentException("The List of weights is not the same length as the list of end objects.");
+        if(weights.contains(null))
+            throw new NullPointerException("A weight is null.");
+        for(int i = 0; i < ends.size(); i++)
+            addEdge(start, ends.get(i), weights.get(i));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Both edges are added atomically: either both are added, or neither is.
+     */
+    @Override
+    public void connect(T start, T end){
+        connect(start, end, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Both edges are added atomically: either both are added, or neither is.
+     */
+    @Override
+    public void connect(T start, T end, int weight){
+        Vertex<T> startVertex = new Vertex<>(start);
+        Vertex<T> endVertex = new Vertex<>(end);
+        Edge<T> forward = new Edge<>(startVertex, endVertex, weight);
+        Edge<T> backward = new Edge<>(endVertex, startVertex, weight);
+        lockBoth(startVertex, endVertex);
+        try{
+            Map<Vertex<T>, Edge<T>> startMap = edgeMapOf(startVertex, endVertex);
+            Map<Vertex<T>, Edge<T>> endMap = edgeMapOf(endVertex, startVertex);
+            if(startMap.containsKey(endVertex) || endMap.containsKey(startVertex))
+                throw new IllegalStateException("Edge already exists in the graph.");
+            startMap.put(endVertex, forward);
+            endMap.put(startVertex, backward);
+            edgeCount.add(startVertex.equals(endVertex) ? 1 : 2);
+        }finally{
+            unlockBoth(startVertex, endVertex);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void connectAll(T start, List<T> ends){
+        Objects.requireNonNull(ends, "List is null.");
+        for(T end : ends)
+            connect(start, end, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void connectAll(T start, List<T> ends, List<Integer> weights){
+        Objects.requireNonNull(ends, "List is null.");
+        Objects.requireNonNull(weights, "List is null.");
+        if(weights.size() != ends.size())
+            throw new IllegalArgumentException("The List of weights is not the same length as the list of end objects.");
+        if(weights.contains(null))
+            throw new NullPointerException("A weight is null.");
+        for(int i = 0; i < ends.size(); i++)
+            connect(start, ends.get(i), weights.get(i));
+    }
+
+    /**
+     * Returns the edge map of the start vertex, after checking that both vertices are part of the graph.
+     * Must be called while holding the stripe of the start vertex, so neither vertex can be removed concurrently.
+     */
+    private Map<Vertex<T>, Edge<T>> edgeMapOf(Vertex<T> startVertex, Vertex<T> endVertex){
+        Map<Vertex<T>, Edge<T>> edgeMap = adjacencyMap.get(startVertex);
+        if(edgeMap == null)
+            throw new NoSuchElementException("Start Vertex is not part of the graph.");
+        if(!adjacencyMap.containsKey(endVertex))
+            throw new NoSuchElementException("End Vertex is not part of the graph.");
+        return edgeMap;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeVertex(T object){
+        Vertex<T> vertex = new Vertex<>(object);
+        lockAll();
+        try{
+            Map<Vertex<T>, Edge<T>> outgoing = adjacencyMap.remove(vertex);
+            if(outgoing == null)
+                return;
+            edgeCount.add(-outgoing.size());
+            for(Map<Vertex<T>, Edge<T>> edgeMap : adjacencyMap.values())
+                if(edgeMap.remove(vertex) != null)
+                    edgeCount.decrement();
+        }finally{
+            unlockAll();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeEdge(T start, T end){
+        Vertex<T> startVertex = new Vertex<>(start);
+        Vertex<T> endVertex = new Vertex<>(end);
+        ReentrantLock lock = stripe(startVertex);
+        lock.lock();
+        try{
+            Map<Vertex<T>, Edge<T>> edgeMap = adjacencyMap.get(startVertex);
+            if(edgeMap != null && edgeMap.remove(endVertex) != null)
+                edgeCount.decrement();
+        }finally{
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Both edges are removed atomically.
+     */
+    @Override
+    public void disconnect(T start, T end){
+        Vertex<T> startVertex = new Vertex<>(start);
+        Vertex<T> endVertex = new Vertex<>(end);
+        lockBoth(startVertex, endVertex);
+        try{
+            Map<Vertex<T>, Edge<T>> startMap = adjacencyMap.get(startVertex);
+            Map<Vertex<T>, Edge<T>> endMap = adjacencyMap.get(endVertex);
+            if(startMap != null && startMap.remove(endVertex) != null)
+                edgeCount.decrement();
+            if(endMap != null && endMap.remove(startVertex) != null)
+                edgeCount.decrement();
+        }finally{
+            unlockBoth(startVertex, endVertex);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<T> getVertices(){
+        Set<T> vertices = new HashSet<>();
+        for(Vertex<T> vertex : adjacencyMap.keySet())
+            vertices.add(vertex.getValue());
+        return vertices;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachVertex(Consumer<T> action){
+        Objects.requireNonNull(action, "Action is null.");
+        for(Vertex<T> vertex : adjacencyMap.keySet())
+            action.accept(vertex.getValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getSuccessors(T object){
+        List<T> successors = new ArrayList<>();
+        forEachSuccessor(object, successors::add);
+        return successors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachSuccessor(T object, Consumer<T> action){
+        Objects.requireNonNull(action, "Action is null.");
+        for(Vertex<T> end : edgeMapOf(object).keySet())
+            action.accept(end.getValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachEdge(T start, ObjIntConsumer<T> action){
+        Objects.requireNonNull(action, "Action is null.");
+        for(Edge<T> edge : edgeMapOf(start).values())
+            action.accept(edge.getEnd().getValue(), edge.getWeight());
+    }
+
+    private Map<Vertex<T>, Edge<T>> edgeMapOf(T object){
+        Map<Vertex<T>, Edge<T>> edgeMap = adjacencyMap.get(new Vertex<>(object));
+        if(edgeMap == null)
+            throw new NoSuchElementException("The object is not a vertex in the graph.");
+        return edgeMap;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getPredecessors(T object){
+        Vertex<T> vertex = new Vertex<>(object);
+        edgeMapOf(object);
+        List<T> predecessors = new ArrayList<>();
+        for(Map.Entry<Vertex<T>, Map<Vertex<T>, Edge<T>>> entry : adjacencyMap.entrySet())
+            if(entry.getValue().containsKey(vertex))
+                predecessors.add(entry.getKey().getValue());
+        return predecessors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getWeight(T start, T end){
+        Edge<T> edge = edgeMapOf(start).get(new Vertex<>(end));
+        if(edge == null)
+            throw new NoSuchElementException("No edge between the two objects was found.");
+        return edge.getWeight();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getDegree(T object){
+        return edgeMapOf(object).size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getInDegree(T object){
+        return getPredecessors(object).size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasVertex(T object){
+        return adjacencyMap.containsKey(new Vertex<>(object));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasEdge(T start, T end){
+        if(!hasVertex(end))
+            throw new NoSuchElementException("End Vertex not found.");
+        return edgeMapOf(start).containsKey(new Vertex<>(end));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty(){
+        return adjacencyMap.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int vertexCount(){
+        return adjacencyMap.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int edgeCount(){
+        return edgeCount.intValue();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear(){
+        lockAll();
+        try{
+            adjacencyMap.clear();
+            edgeCount.reset();
+        }finally{
+            unlockAll();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The copy is a consistent snapshot: no mutation is applied while copying.
+     */
+    @Override
+    public ConcurrentGraph<T> copy(){
+        ConcurrentGraph<T> copy = new ConcurrentGraph<>();
+        lockAll();
+        try{
+            for(Map.Entry<Vertex<T>, Map<Vertex<T>, Edge<T>>> entry : adjacencyMap.entrySet())
+                copy.adjacencyMap.put(entry.getKey(), new ConcurrentHashMap<>(entry.getValue()));
+            copy.edgeCount.add(edgeCount.sum());
+        }finally{
+            unlockAll();
+        }
+        return copy;
+    }
+
+    @Override
+    public String toString(){
+        StringBuilder builder = new StringBuilder();
+        builder.append("ConcurrentGraph[");
+        for(Map.Entry<Vertex<T>, Map<Vertex<T>, Edge<T>>> entry : adjacencyMap.entrySet()){
+            builder.append("Vertex[").append(entry.getKey().getValue()).append("] -> {");
+            for(Vertex<T> end : entry.getValue().keySet())
+                builder.append("Vertex[").append(end.getValue()).append(']');
+            builder.append("}, ");
+        }
+        if(builder.length() > "ConcurrentGraph[".length())
+            builder.delete(builder.length() - 2, builder.length());
+        builder.append("]");
+        return builder.toString();
+    }
+}
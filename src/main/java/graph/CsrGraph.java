@@ -0,0 +1,481 @@
+package graph;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Represents an immutable snapshot of a graph in compressed sparse row (CSR) form.
+ * Every vertex is assigned a dense index in the range [0, vertexCount()). The outgoing edges of the vertex with
+ * index i are stored in the range [offsets[i], offsets[i + 1]) of the targets and weights arrays, sorted by target.
+ * All mutating operations throw an {@link UnsupportedOperationException}.
+ */
+public final class CsrGraph<T> implements IIndexedGraph<T> {
+
+    private static final int INSERTION_SORT_LIMIT = 32;
+
+    private final T[] objects;
+    private final Map<T, Integer> indices;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    /**
+     * Creates a new {@link CsrGraph} from the given arrays. The arrays are NOT copied.
+     * @param objects The objects, by index. Cannot be null.
+     * @param indices The index of each object. Cannot be null.
+     * @param offsets The edge offsets, of length objects.length + 1. Cannot be null.
+     * @param targets The target index of each edge. Cannot be null.
+     * @param weights The weight of each edge. Cannot be null.
+     */
+    CsrGraph(T[] objects, Map<T, Integer> indices, int[] offsets, int[] targets, int[] weights){
+        this.objects = objects;
+        this.indices = indices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Creates an immutable CSR snapshot of the given graph.
+     * @param graph The graph. Cannot be null.
+     *
+     * @return The snapshot.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CsrGraph<T> of(IGraph<T> graph){
+        Objects.requireNonNull(graph, "Graph is null.");
+        if(graph instanceof CsrGraph<T> csr)
+            return csr;
+        if(graph instanceof Graph<T> mutable)
+            return mutable.freeze();
+        Set<T> vertices = graph.getVertices();
+        T[] objects = (T[]) new Object[vertices.size()];
+        Map<T, Integer> indices = new HashMap<>(vertices.size() * 4 / 3 + 1);
+        int index = 0;
+        for(T object : vertices){
+            objects[index] = object;
+            indices.put(object, index++);
+        }
+        int[] offsets = new int[objects.length + 1];
+        int[] targets = new int[graph.edgeCount()];
+        int[] weights = new int[targets.length];
+        int edge = 0;
+        for(int i = 0; i < objects.length; i++){
+            offsets[i] = edge;
+            for(T end : graph.getSuccessors(objects[i])){
+                targets[edge] = indices.get(end);
+                weights[edge] = graph.getWeight(objects[i], end);
+                edge++;
+            }
+            sortRow(targets, weights, offsets[i], edge);
+        }
+        offsets[objects.length] = edge;
+        return new CsrGraph<>(objects, indices, offsets, targets, weights);
+    }
+
+    /**
+     * Sorts the edges in the range [from, to) by target index, keeping the weights aligned.
+     * Short rows are insertion sorted in place. Longer rows are packed into longs, with the target in the high half and
+     * the weight in the low half, and sorted with {@link Arrays#sort(long[])}; this orders them by target because the
+     * targets are non-negative and distinct within a row.
+     */
+    static void sortRow(int[] targets, int[] weights, int from, int to){
+        if(to - from > INSERTION_SORT_LIMIT){
+            long[] packed = new long[to - from];
+            for(int i = from; i < to; i++)
+                packed[i - from] = ((long) targets[i] << 32) | (weights[i] & 0xFFFFFFFFL);
+            Arrays.sort(packed);
+            for(int i = from; i < to; i++){
+                targets[i] = (int) (packed[i - from] >>> 32);
+                weights[i] = (int) packed[i - from];
+            }
+            return;
+        }
+        for(int i = from + 1; i < to; i++){
+            int target = targets[i];
+            int weight = weights[i];
+            int j = i - 1;
+            while(j >= from && targets[j] > target){
+                targets[j + 1] = targets[j];
+                weights[j + 1] = weights[j];
+                j--;
+            }
+            targets[j + 1] = target;
+            weights[j + 1] = weight;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int indexOf(T object){
+        Objects.requireNonNull(object, "Object is null.");
+        Integer index = indices.get(object);
+        if(index == null)
+            throw new NoSuchElementException("The object is not a vertex in the graph.");
+        return index;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T objectAt(int index){
+        return objects[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int degreeAt(int index){
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasEdgeAt(int start, int end){
+        return findEdge(start, end) >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachSuccessorIndex(int index, IntConsumer action){
+        for(int edge = offsets[index]; edge < offsets[index + 1]; edge++)
+            action.accept(targets[edge]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachEdgeIndex(int index, IntEdgeConsumer action){
+        for(int edge = offsets[index]; edge < offsets[index + 1]; edge++)
+            action.accept(targets[edge], weights[edge]);
+    }
+
+    /**
+     * @return The offset of the first outgoing edge of the vertex with the given index.
+     */
+    public int edgeStart(int index){
+        return offsets[index];
+    }
+
+    /**
+     * @return The offset one past the last outgoing edge of the vertex with the given index.
+     */
+    public int edgeEnd(int index){
+        return offsets[index + 1];
+    }
+
+    /**
+     * @return The target index of the edge at the given offset.
+     */
+    public int targetAt(int edge){
+        return targets[edge];
+    }
+
+    /**
+     * @return The weight of the edge at the given offset.
+     */
+    public int weightAt(int edge){
+        return weights[edge];
+    }
+
+    /**
+     * Returns the offset of the edge from the start index to the end index, or a negative value if absent.
+     */
+    private int findEdge(int start, int end){
+        return Arrays.binarySearch(targets, offsets[start], offsets[start + 1], end);
+    }
+
+    /**
+     * @return A new mutable {@link Graph} holding the same vertices and edges.
+     */
+    public Graph<T> toGraph(){
+        Graph<T> graph = new Graph<>();
+        for(T object : objects)
+            graph.addVertex(object);
+        for(int i = 0; i < objects.length; i++)
+            for(int edge = offsets[i]; edge < offsets[i + 1]; edge++)
+                graph.addEdge(objects[i], objects[targets[edge]], weights[edge]);
+        return graph;
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void addVertex(T object){
+        throw new UnsupportedOperationException("A CsrGraph is immutable.");
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void addVertices(List<T> objects){
+        throw new UnsupportedOperationException("A CsrGraph is immutable.");
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void addEdge(T start, T end){
+        throw new UnsupportedOperationException("A CsrGraph is immutable.");
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void addEdge(T start, T end, int weight){
+        throw new UnsupportedOperationException("A CsrGraph is immutable.");
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void addEdges(T start, List<T> ends){
+        throw new UnsupportedOperationException("A CsrGraph is immutable.");
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void addEdges(T start, List<T> ends, List<Integer> weights){
+        throw new UnsupportedOperationException("A CsrGraph is immutable.");
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void connect(T start, T end){
+        throw new UnsupportedOperationException("A CsrGraph is immutable.");
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void connect(T start, T end, int weight){
+        throw new UnsupportedOperationException("A CsrGraph is immutable.");
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void connectAll(T start, List<T> ends){
+        throw new UnsupportedOperationException("A CsrGraph is immutable.");
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void connectAll(T start, List<T> ends, List<Integer> weights){
+        throw new UnsupportedOperationException("A CsrGraph is immutable.");
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void removeVertex(T object){
+        throw new UnsupportedOperationException("A CsrGraph is immutable.");
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void removeEdge(T start, T end){
+        throw new UnsupportedOperationException("A CsrGraph is immutable.");
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void disconnect(T start, T end){
+        throw new UnsupportedOperationException("A CsrGraph is immutable.");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<T> getVertices(){
+        return Collections.unmodifiableSet(indices.keySet());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachVertex(Consumer<T> action){
+        for(T object : objects)
+            action.accept(object);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachSuccessor(T object, Consumer<T> action){
+        int index = indexOf(object);
+        for(int edge = offsets[index]; edge < offsets[index + 1]; edge++)
+            action.accept(objects[targets[edge]]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachEdge(T start, ObjIntConsumer<T> action){
+        int index = indexOf(start);
+        for(int edge = offsets[index]; edge < offsets[index + 1]; edge++)
+            action.accept(objects[targets[edge]], weights[edge]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getSuccessors(T object){
+        int index = indexOf(object);
+        List<T> successors = new ArrayList<>(offsets[index + 1] - offsets[index]);
+        for(int edge = offsets[index]; edge < offsets[index + 1]; edge++)
+            successors.add(objects[targets[edge]]);
+        return successors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getPredecessors(T object){
+        int index = indexOf(object);
+        List<T> predecessors = new ArrayList<>();
+        for(int i = 0; i < objects.length; i++)
+            if(findEdge(i, index) >= 0)
+                predecessors.add(objects[i]);
+        return predecessors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getWeight(T start, T end){
+        int edge = findEdge(indexOf(start), indexOf(end));
+        if(edge < 0)
+            throw new NoSuchElementException("No edge between the two objects was found.");
+        return weights[edge];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getDegree(T object){
+        return degreeAt(indexOf(object));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getInDegree(T object){
+        int index = indexOf(object);
+        int inDegree = 0;
+        for(int i = 0; i < objects.length; i++)
+            if(findEdge(i, index) >= 0)
+                inDegree++;
+        return inDegree;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasVertex(T object){
+        return indices.containsKey(object);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasEdge(T start, T end){
+        return hasEdgeAt(indexOf(start), indexOf(end));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty(){
+        return objects.length == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int vertexCount(){
+        return objects.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int edgeCount(){
+        return targets.length;
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void clear(){
+        throw new UnsupportedOperationException("A CsrGraph is immutable.");
+    }
+
+    /**
+     * Returns this graph, since it is immutable. Use {@link #toGraph()} for a mutable copy.
+     */
+    @Override
+    public CsrGraph<T> copy(){
+        return this;
+    }
+
+    @Override
+    public String toString(){
+        StringBuilder builder = new StringBuilder();
+        builder.append("CsrGraph[");
+        for(int i = 0; i < objects.length; i++){
+            builder.append("Vertex[").append(objects[i]).append("] -> {");
+            for(int edge = offsets[i]; edge < offsets[i + 1]; edge++)
+                builder.append("Vertex[").append(objects[targets[edge]]).append(']');
+            builder.append("}, ");
+        }
+        if(objects.length > 0)
+            builder.delete(builder.length() - 2, builder.length());
+        builder.append("]");
+        return builder.toString();
+    }
+}
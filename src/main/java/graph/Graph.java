@@ -1,14 +1,70 @@
 package graph;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.Collectors;
 
 public final class Graph<T> implements IGraph<T> {
 
-    private Map<Vertex<T>, Set<Edge<T>>> adjacencyMap;
+    /**
+     * The outgoing edges of each vertex, keyed by their end vertex.
+     */
+    private Map<Vertex<T>, Map<Vertex<T>, Edge<T>>> adjacencyMap;
+    /**
+     * The start vertices of the incoming edges of each vertex. Null if predecessors are not indexed.
+     */
+    private Map<Vertex<T>, Set<Vertex<T>>> predecessorMap;
 
     public Graph(){
+        this(false);
+    }
+
+    /**
+     * Creates a new empty {@link Graph}.
+     * When predecessors are indexed, the incoming edges of every vertex are maintained next to the outgoing ones.
+     * This makes {@link #getPredecessors(Object)}, {@link #getInDegree(Object)} and {@link #removeVertex(Object)}
+     * cost O(in-degree) instead of O(V + E), at the cost of extra memory and slower edge insertion.
+     * @param indexPredecessors Whether to index the predecessors of every vertex.
+     */
+    public Graph(boolean indexPredecessors){
         this.adjacencyMap = new HashMap<>();
+        this.predecessorMap = indexPredecessors ? new HashMap<>() : null;
+    }
+
+    /**
+     * Creates a new empty {@link Graph} with storage presized for the given amount of vertices.
+     */
+    Graph(int expectedVertices, boolean indexPredecessors){
+        this.adjacencyMap = HashMap.newHashMap(expectedVertices);
+        this.predecessorMap = indexPredecessors ? HashMap.newHashMap(expectedVertices) : null;
+    }
+
+    /**
+     * Stores the given vertex without any validation, with an edge map presized for the given degrees.
+     * Used by {@link GraphBuilder}, which validates the whole graph up front.
+     */
+    void putVertex(Vertex<T> vertex, int outDegree, int inDegree){
+        adjacencyMap.put(vertex, HashMap.newHashMap(outDegree));
+        if(predecessorMap != null)
+            predecessorMap.put(vertex, HashSet.newHashSet(inDegree));
+    }
+
+    /**
+     * Stores the given edge without any validation. Both vertices must already have been stored.
+     * Used by {@link GraphBuilder}, which validates the whole graph up front.
+     */
+    void putEdge(Edge<T> edge){
+        adjacencyMap.get(edge.getStart()).put(edge.getEnd(), edge);
+        if(predecessorMap != null)
+            predecessorMap.get(edge.getEnd()).add(edge.getStart());
+    }
+
+    /**
+     * @return True if the predecessors of every vertex are indexed. False otherwise.
+     */
+    public boolean indexesPredecessors(){
+        return predecessorMap != null;
     }
 
     /**
@@ -19,7 +75,9 @@ public final class Graph<T> implements IGraph<T> {
         Vertex<T> vertex = new Vertex<>(object);
         if(adjacencyMap.containsKey(vertex))
             throw new IllegalStateException("The Vertex already exists in the Navigation.");
-        adjacencyMap.put(vertex, new HashSet<>());
+        adjacencyMap.put(vertex, new HashMap<>());
+        if(predecessorMap != null)
+            predecessorMap.put(vertex, new HashSet<>());
     }
 
     /**
@@ -144,9 +202,10 @@ public final class Graph<T> implements IGraph<T> {
             throw new NoSuchElementException("End Vertex is not part of the Navigation.");
         }
         Edge<T> edge = new Edge<>(startVertex, endVertex, weight);
-        if(adjacencyMap.get(startVertex).stream().anyMatch(e -> e.hasSameVertices(edge)))
+        if(adjacencyMap.get(startVertex).putIfAbsent(endVertex, edge) != null)
             throw new IllegalStateException("Edge already exists in the Navigation.");
-        adjacencyMap.get(startVertex).add(edge);
+        if(predecessorMap != null)
+            predecessorMap.get(endVertex).add(startVertex);
     }
 
     /**
@@ -154,9 +213,26 @@ public final class Graph<T> implements IGraph<T> {
      */
     @Override
     public void removeVertex(T object){
-        adjacencyMap.remove(new Vertex<>(object));
-        for(Set<Edge<T>> edgeList : adjacencyMap.values()){
-            edgeList.removeIf(edge -> edge.getEnd().equals(object));
+        Vertex<T> vertex = new Vertex<>(object);
+        Map<Vertex<T>, Edge<T>> outgoing = adjacencyMap.remove(vertex);
+        if(predecessorMap == null){
+            for(Map<Vertex<T>, Edge<T>> edgeMap : adjacencyMap.values()){
+                edgeMap.remove(vertex);
+            }
+            return;
+        }
+        Set<Vertex<T>> predecessors = predecessorMap.remove(vertex);
+        if(outgoing == null)
+            return;
+        for(Vertex<T> end : outgoing.keySet()){
+            Set<Vertex<T>> endPredecessors = predecessorMap.get(end);
+            if(endPredecessors != null)
+                endPredecessors.remove(vertex);
+        }
+        for(Vertex<T> predecessor : predecessors){
+            Map<Vertex<T>, Edge<T>> edgeMap = adjacencyMap.get(predecessor);
+            if(edgeMap != null)
+                edgeMap.remove(vertex);
         }
     }
 
@@ -167,10 +243,11 @@ public final class Graph<T> implements IGraph<T> {
     public void removeEdge(T start, T end){
         Vertex<T> startVertex = new Vertex<>(start);
         Vertex<T> endVertex = new Vertex<>(end);
-        Edge<T> dummyEdge = new Edge<>(startVertex, endVertex, 0);
         if(!adjacencyMap.containsKey(startVertex))
             return;
-        adjacencyMap.get(startVertex).removeIf(edge -> edge.hasSameVertices(dummyEdge));
+        boolean removed = adjacencyMap.get(startVertex).remove(endVertex) != null;
+        if(removed && predecessorMap != null)
+            predecessorMap.get(endVertex).remove(startVertex);
     }
 
 
@@ -191,6 +268,42 @@ public final class Graph<T> implements IGraph<T> {
         return adjacencyMap.keySet().stream().map(Vertex::getValue).collect(Collectors.toSet());
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachVertex(Consumer<T> action){
+        Objects.requireNonNull(action, "Action is null.");
+        for(Vertex<T> vertex : adjacencyMap.keySet())
+            action.accept(vertex.getValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachSuccessor(T object, Consumer<T> action){
+        Objects.requireNonNull(action, "Action is null.");
+        Map<Vertex<T>, Edge<T>> edgeMap = adjacencyMap.get(new Vertex<>(object));
+        if(edgeMap == null)
+            throw new NoSuchElementException("The object is not a vertex in the Navigation.");
+        for(Vertex<T> end : edgeMap.keySet())
+            action.accept(end.getValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachEdge(T start, ObjIntConsumer<T> action){
+        Objects.requireNonNull(action, "Action is null.");
+        Map<Vertex<T>, Edge<T>> edgeMap = adjacencyMap.get(new Vertex<>(start));
+        if(edgeMap == null)
+            throw new NoSuchElementException("The object is not a vertex in the Navigation.");
+        for(Edge<T> edge : edgeMap.values())
+            action.accept(edge.getEnd().getValue(), edge.getWeight());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -199,21 +312,24 @@ public final class Graph<T> implements IGraph<T> {
         Vertex<T> vertex = new Vertex<>(object);
         if(!adjacencyMap.containsKey(vertex))
             throw new NoSuchElementException("The object is not a vertex in the Navigation.");
-        return adjacencyMap.get(vertex).stream()
-                .map(Edge::getEnd)
+        return adjacencyMap.get(vertex).keySet().stream()
                 .map(Vertex::getValue)
                 .toList();
     }
 
+    /**
+     * {@inheritDoc}
+     */
     @Override
     public List<T> getPredecessors(T object){
         Vertex<T> vertex = new Vertex<>(object);
         if(!adjacencyMap.containsKey(vertex))
             throw new NoSuchElementException("The object is not a vertex in the Navigation.");
+        if(predecessorMap != null)
+            return predecessorMap.get(vertex).stream().map(Vertex::getValue).toList();
         List<T> pred = new ArrayList<>();
         for(Vertex<T> key : adjacencyMap.keySet()){
-            Edge<T> edge = new Edge<>(key, vertex, 0);
-            if(adjacencyMap.get(key).contains(edge)){
+            if(adjacencyMap.get(key).containsKey(vertex)){
                 pred.add(key.getValue());
             }
         }
@@ -229,10 +345,9 @@ public final class Graph<T> implements IGraph<T> {
         Vertex<T> endVertex = new Vertex<>(end);
         if(!adjacencyMap.containsKey(startVertex))
             throw new NoSuchElementException("Start object is not a vertex in the Navigation.");
-        Edge<T> dummyEdge = new Edge<>(startVertex, endVertex, 0);
-        for(Edge<T> edge : adjacencyMap.get(startVertex))
-            if(edge.hasSameVertices(dummyEdge))
-                return edge.getWeight();
+        Edge<T> edge = adjacencyMap.get(startVertex).get(endVertex);
+        if(edge != null)
+            return edge.getWeight();
         throw new NoSuchElementException("No edge between the two objects was found.");
     }
 
@@ -247,6 +362,23 @@ public final class Graph<T> implements IGraph<T> {
         return adjacencyMap.get(vertex).size();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getInDegree(T object){
+        Vertex<T> vertex = new Vertex<>(object);
+        if(!adjacencyMap.containsKey(vertex))
+            throw new NoSuchElementException("Object is not a Vertex in the Navigation.");
+        if(predecessorMap != null)
+            return predecessorMap.get(vertex).size();
+        int inDegree = 0;
+        for(Map<Vertex<T>, Edge<T>> edgeMap : adjacencyMap.values())
+            if(edgeMap.containsKey(vertex))
+                inDegree++;
+        return inDegree;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -266,12 +398,7 @@ public final class Graph<T> implements IGraph<T> {
             throw new NoSuchElementException("Start Vertex not found.");
         if(!adjacencyMap.containsKey(endVertex))
             throw new NoSuchElementException("End Vertex not found.");
-        Edge<T> firstEdge = new Edge<>(startVertex, endVertex, 0);
-        for(Edge<T> edge : adjacencyMap.get(startVertex)){
-            if(firstEdge.hasSameVertices(edge))
-                return true;
-        }
-        return false;
+        return adjacencyMap.get(startVertex).containsKey(endVertex);
     }
 
     /**
@@ -308,6 +435,8 @@ public final class Graph<T> implements IGraph<T> {
     @Override
     public void clear(){
         adjacencyMap = new HashMap<>();
+        if(predecessorMap != null)
+            predecessorMap = new HashMap<>();
     }
 
     @Override
@@ -327,10 +456,10 @@ public final class Graph<T> implements IGraph<T> {
     public String toString(){
         StringBuilder builder = new StringBuilder();
         builder.append("Navigation[");
-        for(Vertex<T> vertex : adjacencyMap.keySet()){
-            builder.append(String.format("Vertex[%s] -> {", vertex.getValue()));
-            for(Edge<T> edge : adjacencyMap.get(vertex))
-                builder.append(String.format("Vertex[%s]", edge.getEnd().getValue()));
+        for(Map.Entry<Vertex<T>, Map<Vertex<T>, Edge<T>>> entry : adjacencyMap.entrySet()){
+            builder.append("Vertex[").append(entry.getKey().getValue()).append("] -> {");
+            for(Vertex<T> end : entry.getValue().keySet())
+                builder.append("Vertex[").append(end.getValue()).append(']');
             builder.append("}, ");
         }
         if(!adjacencyMap.isEmpty())
@@ -339,14 +468,49 @@ public final class Graph<T> implements IGraph<T> {
         return builder.toString();
     }
 
+    /**
+     * Creates an immutable snapshot of this graph in compressed sparse row form.
+     * Later changes to this graph are not reflected in the snapshot.
+     *
+     * @return The snapshot.
+     */
+    @SuppressWarnings("unchecked")
+    public CsrGraph<T> freeze(){
+        T[] objects = (T[]) new Object[adjacencyMap.size()];
+        Map<T, Integer> indices = new HashMap<>(adjacencyMap.size() * 4 / 3 + 1);
+        int index = 0;
+        for(Vertex<T> vertex : adjacencyMap.keySet()){
+            objects[index] = vertex.getValue();
+            indices.put(vertex.getValue(), index++);
+        }
+        int[] offsets = new int[objects.length + 1];
+        int[] targets = new int[edgeCount()];
+        int[] weights = new int[targets.length];
+        int offset = 0;
+        for(int i = 0; i < objects.length; i++){
+            offsets[i] = offset;
+            for(Edge<T> edge : adjacencyMap.get(new Vertex<>(objects[i])).values()){
+                targets[offset] = indices.get(edge.getEnd().getValue());
+                weights[offset] = edge.getWeight();
+                offset++;
+            }
+            CsrGraph.sortRow(targets, weights, offsets[i], offset);
+        }
+        offsets[objects.length] = offset;
+        return new CsrGraph<>(objects, indices, offsets, targets, weights);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Graph<T> copy(){
-        Graph<T> copy = new Graph<>();
+        Graph<T> copy = new Graph<>(predecessorMap != null);
         for(Vertex<T> vertex : this.adjacencyMap.keySet())
-            copy.adjacencyMap.put(vertex, new HashSet<>(this.adjacencyMap.get(vertex)));
+            copy.adjacencyMap.put(vertex, new HashMap<>(this.adjacencyMap.get(vertex)));
+        if(predecessorMap != null)
+            for(Vertex<T> vertex : this.predecessorMap.keySet())
+                copy.predecessorMap.put(vertex, new HashSet<>(this.predecessorMap.get(vertex)));
         return copy;
     }
 }
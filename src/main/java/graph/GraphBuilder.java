@@ -0,0 +1,204 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * Builds a graph from batches of vertices and edges.
+ * Unlike adding them to a {@link Graph} one by one, nothing is validated while adding. Duplicate vertices, duplicate
+ * edges and edges towards unknown vertices are all detected in a single pass when the graph is built. An edge may
+ * therefore be added before its end vertex.
+ */
+public final class GraphBuilder<T> {
+
+    private final List<T> vertices;
+    private Object[] starts;
+    private Object[] ends;
+    private int[] weights;
+    private int edgeCount;
+    private boolean indexPredecessors;
+
+    public GraphBuilder(){
+        this(16, 16);
+    }
+
+    /**
+     * Creates a new {@link GraphBuilder}, presized for the expected amount of vertices and edges.
+     * @param expectedVertices The expected amount of vertices. Cannot be negative.
+     * @param expectedEdges The expected amount of edges. Cannot be negative.
+     */
+    public GraphBuilder(int expectedVertices, int expectedEdges){
+        if(expectedVertices < 0 || expectedEdges < 0)
+            throw new IllegalArgumentException("Expected size is negative.");
+        this.vertices = new ArrayList<>(expectedVertices);
+        this.starts = new Object[expectedEdges];
+        this.ends = new Object[expectedEdges];
+        this.weights = new int[expectedEdges];
+    }
+
+    /**
+     * Makes the built {@link Graph} index the predecessors of every vertex. See {@link Graph#Graph(boolean)}.
+     *
+     * @return This builder.
+     */
+    public GraphBuilder<T> indexPredecessors(){
+        this.indexPredecessors = true;
+        return this;
+    }
+
+    /**
+     * Adds a vertex with the given object.
+     * @param object The object. Cannot be null.
+     *
+     * @return This builder.
+     * @throws NullPointerException If the object is null.
+     */
+    public GraphBuilder<T> addVertex(T object){
+        Objects.requireNonNull(object, "Object is null.");
+        vertices.add(object);
+        return this;
+    }
+
+    /**
+     * Adds a vertex for each of the objects.
+     * @param objects The objects. Cannot be null. Cannot contain null.
+     *
+     * @return This builder.
+     * @throws NullPointerException If the collection or any of the objects is null.
+     */
+    public GraphBuilder<T> addVertices(Collection<T> objects){
+        Objects.requireNonNull(objects, "Collection is null.");
+        for(T object : objects)
+            addVertex(object);
+        return this;
+    }
+
+    /**
+     * Adds a directed edge from the start object to the end object with a weight of 0.
+     * @param start The start object. Cannot be null.
+     * @param end The end object. Cannot be null.
+     *
+     * @return This builder.
+     * @throws NullPointerException If the start or end object is null.
+     */
+    public GraphBuilder<T> addEdge(T start, T end){
+        return addEdge(start, end, 0);
+    }
+
+    /**
+     * Adds a directed edge from the start object to the end object with the given weight.
+     * @param start The start object. Cannot be null.
+     * @param end The end object. Cannot be null.
+     * @param weight The weight. Cannot be negative.
+     *
+     * @return This builder.
+     * @throws NullPointerException If the start or end object is null.
+     * @throws IllegalArgumentException If the weight is negative.
+     */
+    public GraphBuilder<T> addEdge(T start, T end, int weight){
+        Objects.requireNonNull(start, "Start object is null.");
+        Objects.requireNonNull(end, "End object is null.");
+        if(weight < 0)
+            throw new IllegalArgumentException("Weight is negative.");
+        if(edgeCount == starts.length){
+            int capacity = Math.max(16, edgeCount * 2);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        starts[edgeCount] = start;
+        ends[edgeCount] = end;
+        weights[edgeCount] = weight;
+        edgeCount++;
+        return this;
+    }
+
+    /**
+     * Adds directed edges from the start object to all the end objects with a weight of 0.
+     * @param start The start object. Cannot be null.
+     * @param ends The end objects. Cannot be null. Cannot contain null.
+     *
+     * @return This builder.
+     * @throws NullPointerException If the start object, the collection or any of the end objects is null.
+     */
+    public GraphBuilder<T> addEdges(T start, Collection<T> ends){
+        Objects.requireNonNull(ends, "Collection is null.");
+        for(T end : ends)
+            addEdge(start, end, 0);
+        return this;
+    }
+
+    /**
+     * Builds a new mutable {@link Graph}.
+     *
+     * @return The graph.
+     * @throws IllegalStateException If a vertex or an edge was added more than once.
+     * @throws NoSuchElementException If an edge starts or ends in an object that was not added as a vertex.
+     */
+    @SuppressWarnings("unchecked")
+    public Graph<T> build(){
+        CsrGraph<T> csr = buildCsr();
+        int n = csr.vertexCount();
+        int[] inDegrees = new int[n];
+        if(indexPredecessors)
+            for(int edge = 0; edge < edgeCount; edge++)
+                inDegrees[csr.targetAt(edge)]++;
+        Graph<T> graph = new Graph<>(n, indexPredecessors);
+        Vertex<T>[] wrapped = (Vertex<T>[]) new Vertex<?>[n];
+        for(int i = 0; i < n; i++){
+            wrapped[i] = new Vertex<>(csr.objectAt(i));
+            graph.putVertex(wrapped[i], csr.degreeAt(i), inDegrees[i]);
+        }
+        for(int i = 0; i < n; i++)
+            for(int edge = csr.edgeStart(i); edge < csr.edgeEnd(i); edge++)
+                graph.putEdge(new Edge<>(wrapped[i], wrapped[csr.targetAt(edge)], csr.weightAt(edge)));
+        return graph;
+    }
+
+    /**
+     * Builds a new immutable {@link CsrGraph}. Vertices are indexed in the order they were added.
+     *
+     * @return The graph.
+     * @throws IllegalStateException If a vertex or an edge was added more than once.
+     * @throws NoSuchElementException If an edge starts or ends in an object that was not added as a vertex.
+     */
+    @SuppressWarnings("unchecked")
+    public CsrGraph<T> buildCsr(){
+        int n = vertices.size();
+        T[] objects = (T[]) vertices.toArray();
+        Map<T, Integer> indices = HashMap.newHashMap(n);
+        for(int i = 0; i < n; i++)
+            if(indices.putIfAbsent(objects[i], i) != null)
+                throw new IllegalStateException("The Vertex " + objects[i] + " was added more than once.");
+        int[] startIndices = new int[edgeCount];
+        int[] offsets = new int[n + 1];
+        for(int edge = 0; edge < edgeCount; edge++){
+            startIndices[edge] = lookup(indices, starts[edge]);
+            offsets[startIndices[edge] + 1]++;
+        }
+        for(int i = 0; i < n; i++)
+            offsets[i + 1] += offsets[i];
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] targets = new int[edgeCount];
+        int[] sortedWeights = new int[edgeCount];
+        for(int edge = 0; edge < edgeCount; edge++){
+            int position = next[startIndices[edge]]++;
+            targets[position] = lookup(indices, ends[edge]);
+            sortedWeights[position] = weights[edge];
+        }
+        for(int i = 0; i < n; i++){
+            CsrGraph.sortRow(targets, sortedWeights, offsets[i], offsets[i + 1]);
+            for(int edge = offsets[i] + 1; edge < offsets[i + 1]; edge++)
+                if(targets[edge] == targets[edge - 1])
+                    throw new IllegalStateException(
+                            "The Edge from " + objects[i] + " to " + objects[targets[edge]] + " was added more than once.");
+        }
+        return new CsrGraph<>(objects, indices, offsets, targets, sortedWeights);
+    }
+
+    private int lookup(Map<T, Integer> indices, Object object){
+        Integer index = indices.get(object);
+        if(index == null)
+            throw new NoSuchElementException("The object " + object + " is not a vertex in the graph.");
+        return index;
+    }
+}
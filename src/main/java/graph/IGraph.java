@@ -3,6 +3,8 @@ package graph;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 
 /**
  * Represents an interface for basic interactions with a graph.
@@ -160,6 +162,15 @@ public interface IGraph<T> {
      */
     Set<T> getVertices();
 
+    /**
+     * Performs the given action on every object that is a vertex in the graph.
+     * Unlike {@link #getVertices()}, does not copy the vertices into a new collection.
+     * @param action The action. Cannot be null.
+     */
+    default void forEachVertex(Consumer<T> action){
+        getVertices().forEach(action);
+    }
+
     /**
      * Fetches and returns all the objects that are directly linked by an edge with the given object.
      * @param object The object. Cannot be null.
@@ -168,6 +179,38 @@ public interface IGraph<T> {
      * @throws NoSuchElementException If the object is not a vertex in the graph.
      */
     List<T> getSuccessors(T object);
+
+    /**
+     * Performs the given action on every object that is directly linked by an edge with the given object.
+     * Unlike {@link #getSuccessors(Object)}, does not copy the successors into a new list.
+     * @param object The object. Cannot be null.
+     * @param action The action. Cannot be null.
+     *
+     * @throws NoSuchElementException If the object is not a vertex in the graph.
+     */
+    default void forEachSuccessor(T object, Consumer<T> action){
+        getSuccessors(object).forEach(action);
+    }
+
+    /**
+     * Performs the given action on the end object and the weight of every outgoing edge of the given object.
+     * @param start The start object. Cannot be null.
+     * @param action The action. Cannot be null.
+     *
+     * @throws NoSuchElementException If the object is not a vertex in the graph.
+     */
+    default void forEachEdge(T start, ObjIntConsumer<T> action){
+        for(T end : getSuccessors(start))
+            action.accept(end, getWeight(start, end));
+    }
+
+    /**
+     * Fetches and returns all the objects that have an edge towards the given object.
+     * @param object The object. Cannot be null.
+     *
+     * @return The preceding objects.
+     * @throws NoSuchElementException If the object is not a vertex in the graph.
+     */
     List<T> getPredecessors(T object);
 
     /**
@@ -189,6 +232,15 @@ public interface IGraph<T> {
      */
     int getDegree(T object);
 
+    /**
+     * Returns the amount of objects that are connected to the given object through an edge.
+     * @param object The object. Cannot be null.
+     *
+     * @return The amount of predecessors.
+     * @throws NoSuchElementException If the object is not a vertex in the graph.
+     */
+    int getInDegree(T object);
+
     /**
      * Checks whether the given object is a vertex in the graph.
      * @param object The object. Cannot be null.
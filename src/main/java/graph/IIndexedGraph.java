@@ -0,0 +1,51 @@
+package graph;
+
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * Represents a graph in which every vertex is assigned a dense index in the range [0, vertexCount()).
+ * Allows iterating over the graph with primitive indices, without allocating wrapper objects.
+ * Indices remain valid until the graph is changed.
+ */
+public interface IIndexedGraph<T> extends IGraph<T> {
+
+    /**
+     * Returns the index of the given object.
+     * @param object The object. Cannot be null.
+     *
+     * @return The index.
+     * @throws NoSuchElementException If the object is not a vertex in the graph.
+     */
+    int indexOf(T object);
+
+    /**
+     * @return The object with the given index.
+     */
+    T objectAt(int index);
+
+    /**
+     * @return The amount of outgoing edges of the vertex with the given index.
+     */
+    int degreeAt(int index);
+
+    /**
+     * Checks whether an edge exists from the start index to the end index.
+     */
+    boolean hasEdgeAt(int start, int end);
+
+    /**
+     * Performs the given action on the index of every successor of the vertex with the given index.
+     * @param index The index.
+     * @param action The action. Cannot be null.
+     */
+    void forEachSuccessorIndex(int index, IntConsumer action);
+
+    /**
+     * Performs the given action on the end index and the weight of every outgoing edge of the vertex with the given
+     * index.
+     * @param index The index.
+     * @param action The action. Cannot be null.
+     */
+    void forEachEdgeIndex(int index, IntEdgeConsumer action);
+}
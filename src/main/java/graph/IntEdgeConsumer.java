@@ -0,0 +1,16 @@
+package graph;
+
+/**
+ * Represents an operation that accepts the end index and the weight of an edge.
+ * Used to iterate over the edges of an {@link IIndexedGraph} without boxing.
+ */
+@FunctionalInterface
+public interface IntEdgeConsumer {
+
+    /**
+     * Performs this operation on the given edge.
+     * @param end The index of the end vertex.
+     * @param weight The weight.
+     */
+    void accept(int end, int weight);
+}
@@ -0,0 +1,733 @@
+package graph;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Represents a graph of strings that is stored off-heap, in a memory-mapped file.
+ * Every vertex is assigned a dense index in insertion order. The file holds a vertex table, the UTF-8 encoded names
+ * of the vertices and an edge area in which the outgoing edges of every vertex form one contiguous block. Each block
+ * is followed by an open-addressing hash index from end vertex to edge, so duplicate checks and weight lookups take
+ * constant time. A full block is moved to a new block of twice its capacity at the end of the edge area, so appending
+ * an edge takes amortized constant time; the old block is left unused. Opening an existing file only maps it: nothing
+ * is parsed, and the name dictionary is only built the first time a vertex is looked up by name.
+ * The store is append-only: vertices and edges can be added, but not removed. The amount of vertices and the total
+ * length of their names are fixed when the file is created; the edge area grows as needed.
+ * Not thread-safe.
+ *
+ * File layout:
+ * <pre>
+ * header   : int magic, int version, int vertexCapacity, int vertexCount, int nameCapacity, int nameLength,
+ *            long edgeCount, long edgeAreaLength, padded to 64 bytes
+ * vertices : vertexCapacity * (long block offset, int block capacity, int degree, int name offset, int name length)
+ * names    : nameCapacity bytes
+ * edges    : segments of SEGMENT_BYTES, holding blocks of capacity c: c * (int end index, int weight), followed by
+ *            2c * (int edge + 1, or 0 if the slot is free)
+ * </pre>
+ * A block never spans two segments, which limits the out-degree of a vertex to SEGMENT_BYTES / 16 edges.
+ */
+public final class MappedGraph implements IIndexedGraph<String>, AutoCloseable {
+
+    private static final int MAGIC = 0x4D475246;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 64;
+    private static final int VERTEX_BYTES = 24;
+    private static final int EDGE_BYTES = 8;
+    private static final int BLOCK_BYTES_PER_EDGE = EDGE_BYTES + 2 * 4;
+    private static final int MIN_BLOCK_EDGES = 4;
+    private static final int SEGMENT_SHIFT = 26;
+    private static final long SEGMENT_BYTES = 1L << SEGMENT_SHIFT;
+    private static final int NO_EDGE = -1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer table;
+    private final List<MappedByteBuffer> segments;
+    private final int vertexCapacity;
+    private final int nameCapacity;
+    private final long edgesOffset;
+    private int vertexCount;
+    private int nameLength;
+    private long edgeCount;
+    private long edgeAreaLength;
+    private String[] names;
+    private Map<String, Integer> indices;
+
+    private MappedGraph(FileChannel channel, int vertexCapacity, int nameCapacity) throws IOException {
+        this.channel = channel;
+        this.vertexCapacity = vertexCapacity;
+        this.nameCapacity = nameCapacity;
+        this.edgesOffset = HEADER_BYTES + (long) vertexCapacity * VERTEX_BYTES + nameCapacity;
+        this.table = channel.map(FileChannel.MapMode.READ_WRITE, 0, edgesOffset);
+        this.segments = new ArrayList<>();
+        this.names = new String[vertexCapacity];
+    }
+
+    /**
+     * Creates a new, empty store at the given path. An existing file is overwritten.
+     * @param path The path. Cannot be null.
+     * @param vertexCapacity The maximum amount of vertices. Cannot be negative.
+     * @param nameCapacity The maximum total length of the UTF-8 encoded vertex names, in bytes. Cannot be negative.
+     *
+     * @return The store.
+     * @throws UncheckedIOException If the file could not be created.
+     */
+    public static MappedGraph create(Path path, int vertexCapacity, int nameCapacity){
+        Objects.requireNonNull(path, "Path is null.");
+        if(vertexCapacity < 0 || nameCapacity < 0)
+            throw new IllegalArgumentException("Capacity is negative.");
+        if(HEADER_BYTES + (long) vertexCapacity * VERTEX_BYTES + nameCapacity > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Capacity is too large.");
+        FileChannel channel = null;
+        try{
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            MappedGraph graph = new MappedGraph(channel, vertexCapacity, nameCapacity);
+            graph.table.putInt(0, MAGIC);
+            graph.table.putInt(4, VERSION);
+            graph.table.putInt(8, vertexCapacity);
+            graph.table.putInt(16, nameCapacity);
+            graph.writeCounts();
+            return graph;
+        }catch(IOException | RuntimeException e){
+            closeQuietly(channel, e);
+            throw e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+        }
+    }
+
+    /**
+     * Opens an existing store at the given path.
+     * @param path The path. Cannot be null.
+     *
+     * @return The store.
+     * @throws UncheckedIOException If the file could not be opened.
+     * @throws IllegalArgumentException If the file is not a store of a supported version, or if its header does not
+     *                                  match its size.
+     */
+    public static MappedGraph open(Path path){
+        Objects.requireNonNull(path, "Path is null.");
+        FileChannel channel = null;
+        try{
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if(channel.size() < HEADER_BYTES)
+                throw new IllegalArgumentException("The file is not a graph store of a supported version.");
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if(header.getInt(0) != MAGIC || header.getInt(4) != VERSION)
+                throw new IllegalArgumentException("The file is not a graph store of a supported version.");
+            validateHeader(header, channel.size());
+            MappedGraph graph = new MappedGraph(channel, header.getInt(8), header.getInt(16));
+            graph.vertexCount = header.getInt(12);
+            graph.nameLength = header.getInt(20);
+            graph.edgeCount = header.getLong(24);
+            graph.edgeAreaLength = header.getLong(32);
+            while(graph.segments.size() * SEGMENT_BYTES < graph.edgeAreaLength)
+                graph.mapSegment();
+            return graph;
+        }catch(IOException | RuntimeException e){
+            closeQuietly(channel, e);
+            throw e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+        }
+    }
+
+    /**
+     * Checks that the counts in the header are consistent with each other and with the size of the file. Mapping a
+     * region past the end of the file in read-write mode would silently extend it, so a truncated or corrupt file has
+     * to be rejected before anything else is mapped.
+     */
+    private static void validateHeader(MappedByteBuffer header, long fileSize){
+        int vertexCapacity = header.getInt(8);
+        int vertexCount = header.getInt(12);
+        int nameCapacity = header.getInt(16);
+        int nameLength = header.getInt(20);
+        long edgeCount = header.getLong(24);
+        long edgeAreaLength = header.getLong(32);
+        if(vertexCapacity < 0 || vertexCount < 0 || vertexCount > vertexCapacity)
+            throw new IllegalArgumentException("Corrupt graph store: invalid vertex count.");
+        if(nameCapacity < 0 || nameLength < 0 || nameLength > nameCapacity)
+            throw new IllegalArgumentException("Corrupt graph store: invalid name length.");
+        long edgesOffset = HEADER_BYTES + (long) vertexCapacity * VERTEX_BYTES + nameCapacity;
+        if(edgesOffset > Integer.MAX_VALUE || edgesOffset > fileSize)
+            throw new IllegalArgumentException("Corrupt graph store: the file is shorter than its vertex table.");
+        if(edgeAreaLength < 0 || edgeCount < 0 || edgeCount > edgeAreaLength / BLOCK_BYTES_PER_EDGE)
+            throw new IllegalArgumentException("Corrupt graph store: invalid edge count.");
+        // The edge area is always mapped, and therefore stored, in whole segments.
+        long segmentCount = (edgeAreaLength + SEGMENT_BYTES - 1) >>> SEGMENT_SHIFT;
+        if(segmentCount > (fileSize - edgesOffset) >>> SEGMENT_SHIFT)
+            throw new IllegalArgumentException("Corrupt graph store: the file is shorter than its edge area.");
+    }
+
+    /**
+     * Closes the given channel, if any, after a failure. A failure to close is added to the original failure.
+     */
+    private static void closeQuietly(FileChannel channel, Exception failure){
+        if(channel == null)
+            return;
+        try{
+            channel.close();
+        }catch(IOException e){
+            failure.addSuppressed(e);
+        }
+    }
+
+    private void writeCounts(){
+        table.putInt(12, vertexCount);
+        table.putInt(20, nameLength);
+        table.putLong(24, edgeCount);
+        table.putLong(32, edgeAreaLength);
+    }
+
+    private void mapSegment() throws IOException {
+        long offset = edgesOffset + segments.size() * SEGMENT_BYTES;
+        segments.add(channel.map(FileChannel.MapMode.READ_WRITE, offset, SEGMENT_BYTES));
+    }
+
+    private static int vertexPosition(int index){
+        return HEADER_BYTES + index * VERTEX_BYTES;
+    }
+
+    private long blockOf(int index){
+        return table.getLong(vertexPosition(index));
+    }
+
+    private int blockCapacityOf(int index){
+        return table.getInt(vertexPosition(index) + 8);
+    }
+
+    private MappedByteBuffer segmentOf(long block){
+        return segments.get((int) (block >>> SEGMENT_SHIFT));
+    }
+
+    private static int positionOf(long block){
+        return (int) (block & (SEGMENT_BYTES - 1));
+    }
+
+    private static int hash(int end, int mask){
+        int hash = end * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * @return The position of the edge of the given vertex in its block, or NO_EDGE if there is none.
+     */
+    private int findEdge(int start, int end){
+        int capacity = blockCapacityOf(start);
+        if(capacity == 0)
+            return NO_EDGE;
+        long block = blockOf(start);
+        MappedByteBuffer segment = segmentOf(block);
+        int base = positionOf(block);
+        int index = base + capacity * EDGE_BYTES;
+        int mask = 2 * capacity - 1;
+        for(int slot = hash(end, mask); ; slot = (slot + 1) & mask){
+            int entry = segment.getInt(index + slot * 4);
+            if(entry == 0)
+                return NO_EDGE;
+            if(segment.getInt(base + (entry - 1) * EDGE_BYTES) == end)
+                return entry - 1;
+        }
+    }
+
+    /**
+     * Adds the given edge to the hash index of a block. The edge cannot be in the index yet.
+     */
+    private static void index(MappedByteBuffer segment, int base, int capacity, int end, int edge){
+        int index = base + capacity * EDGE_BYTES;
+        int mask = 2 * capacity - 1;
+        int slot = hash(end, mask);
+        while(segment.getInt(index + slot * 4) != 0)
+            slot = (slot + 1) & mask;
+        segment.putInt(index + slot * 4, edge + 1);
+    }
+
+    /**
+     * Moves the edges of the given vertex to a new block of twice the capacity, at the end of the edge area.
+     * @throws IllegalStateException If the vertex has as many edges as a block can hold.
+     */
+    private void grow(int index, int degree) throws IOException {
+        int capacity = blockCapacityOf(index);
+        int newCapacity = capacity == 0 ? MIN_BLOCK_EDGES : capacity * 2;
+        long bytes = (long) newCapacity * BLOCK_BYTES_PER_EDGE;
+        if(bytes > SEGMENT_BYTES)
+            throw new IllegalStateException("The store has no room left for another edge of the vertex.");
+        long block = edgeAreaLength;
+        if(positionOf(block) + bytes > SEGMENT_BYTES)
+            block = ((block >>> SEGMENT_SHIFT) + 1) << SEGMENT_SHIFT;
+        while(segments.size() * SEGMENT_BYTES < block + bytes)
+            mapSegment();
+        MappedByteBuffer segment = segmentOf(block);
+        int base = positionOf(block);
+        // The edge area is reused after a clear, so the index must be emptied.
+        for(int position = base + newCapacity * EDGE_BYTES; position < base + bytes; position += 8)
+            segment.putLong(position, 0);
+        if(degree > 0){
+            long oldBlock = blockOf(index);
+            segment.put(base, segmentOf(oldBlock), positionOf(oldBlock), degree * EDGE_BYTES);
+            for(int edge = 0; edge < degree; edge++)
+                index(segment, base, newCapacity, segment.getInt(base + edge * EDGE_BYTES), edge);
+        }
+        int vertexPosition = vertexPosition(index);
+        table.putLong(vertexPosition, block);
+        table.putInt(vertexPosition + 8, newCapacity);
+        edgeAreaLength = block + bytes;
+        table.putLong(32, edgeAreaLength);
+    }
+
+    /**
+     * Builds the name dictionary, if it was not built yet.
+     */
+    private Map<String, Integer> indices(){
+        if(indices == null){
+            indices = HashMap.newHashMap(vertexCount);
+            for(int i = 0; i < vertexCount; i++)
+                indices.put(objectAt(i), i);
+        }
+        return indices;
+    }
+
+    /**
+     * Flushes all changes to the file.
+     */
+    public void force(){
+        writeCounts();
+        table.force();
+        for(MappedByteBuffer segment : segments)
+            segment.force();
+    }
+
+    /**
+     * Flushes all changes to the file and closes it.
+     * @throws UncheckedIOException If the file could not be closed.
+     */
+    @Override
+    public void close(){
+        force();
+        try{
+            channel.close();
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int indexOf(String object){
+        Objects.requireNonNull(object, "Object is null.");
+        Integer index = indices().get(object);
+        if(index == null)
+            throw new NoSuchElementException("The object is not a vertex in the graph.");
+        return index;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String objectAt(int index){
+        Objects.checkIndex(index, vertexCount);
+        if(names[index] == null){
+            int position = vertexPosition(index);
+            byte[] bytes = new byte[table.getInt(position + 20)];
+            table.get(table.getInt(position + 16), bytes);
+            names[index] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return names[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int degreeAt(int index){
+        return table.getInt(vertexPosition(index) + 12);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasEdgeAt(int start, int end){
+        return findEdge(start, end) != NO_EDGE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachSuccessorIndex(int index, IntConsumer action){
+        int degree = degreeAt(index);
+        if(degree == 0)
+            return;
+        long block = blockOf(index);
+        MappedByteBuffer segment = segmentOf(block);
+        int base = positionOf(block);
+        for(int edge = 0; edge < degree; edge++)
+            action.accept(segment.getInt(base + edge * EDGE_BYTES));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachEdgeIndex(int index, IntEdgeConsumer action){
+        int degree = degreeAt(index);
+        if(degree == 0)
+            return;
+        long block = blockOf(index);
+        MappedByteBuffer segment = segmentOf(block);
+        int base = positionOf(block);
+        for(int edge = 0; edge < degree; edge++)
+            action.accept(segment.getInt(base + edge * EDGE_BYTES), segment.getInt(base + edge * EDGE_BYTES + 4));
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IllegalStateException If the store has no room left for the vertex or its name.
+     */
+    @Override
+    public void addVertex(String object){
+        Objects.requireNonNull(object, "Object is null.");
+        if(indices().containsKey(object))
+            throw new IllegalStateException("The Vertex already exists in the graph.");
+        byte[] bytes = object.getBytes(StandardCharsets.UTF_8);
+        if(vertexCount == vertexCapacity)
+            throw new IllegalStateException("The store has no room left for another vertex.");
+        if(nameLength + bytes.length > nameCapacity)
+            throw new IllegalStateException("The store has no room left for the name of the vertex.");
+        int nameOffset = HEADER_BYTES + vertexCapacity * VERTEX_BYTES + nameLength;
+        table.put(nameOffset, bytes);
+        int position = vertexPosition(vertexCount);
+        table.putLong(position, 0);
+        table.putInt(position + 8, 0);
+        table.putInt(position + 12, 0);
+        table.putInt(position + 16, nameOffset);
+        table.putInt(position + 20, bytes.length);
+        names[vertexCount] = object;
+        indices.put(object, vertexCount);
+        nameLength += bytes.length;
+        vertexCount++;
+        writeCounts();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addVertices(List<String> objects){
+        Objects.requireNonNull(objects, "List is null.");
+        for(String object : objects)
+            addVertex(object);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addEdge(String start, String end){
+        appendEdge(start, end, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addEdge(String start, String end, int weight){
+        appendEdge(start, end, weight);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addEdges(String start, List<String> ends){
+        Objects.requireNonNull(ends, "List is null.");
+        for(String end : ends)
+            appendEdge(start, end, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addEdges(String start, List<String> ends, List<Integer> weights){
+        Objects.requireNonNull(ends, "List is null.");
+        Objects.requireNonNull(weights, "List is null.");
+        if(weights.size() != ends.size())
+            throw new IllegalArgumentException("The List of weights is not the same length as the list of end objects.");
+        if(weights.contains(null))
+            throw new NullPointerException("A weight is null.");
+        for(int i = 0; i < ends.size(); i++)
+            appendEdge(start, ends.get(i), weights.get(i));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void connect(String start, String end){
+        appendEdge(start, end, 0);
+        appendEdge(end, start, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void connect(String start, String end, int weight){
+        appendEdge(start, end, weight);
+        appendEdge(end, start, weight);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void connectAll(String start, List<String> ends){
+        Objects.requireNonNull(ends, "List is null.");
+        for(String end : ends){
+            appendEdge(start, end, 0);
+            appendEdge(end, start, 0);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void connectAll(String start, List<String> ends, List<Integer> weights){
+        Objects.requireNonNull(ends, "List is null.");
+        Objects.requireNonNull(weights, "List is null.");
+        if(weights.size() != ends.size())
+            throw new IllegalArgumentException("The List of weights is not the same length as the list of end objects.");
+        if(weights.contains(null))
+            throw new NullPointerException("A weight is null.");
+        for(int i = 0; i < ends.size(); i++){
+            int weight = weights.get(i);
+            appendEdge(start, ends.get(i), weight);
+            appendEdge(ends.get(i), start, weight);
+        }
+    }
+
+    /**
+     * Appends a directed edge starting at the given object and ending in the other, with the given weight.
+     * @throws IllegalStateException If an edge already existed between the two objects.
+     * @throws IllegalArgumentException If the weight is negative.
+     * @throws NoSuchElementException If the start or end object is not a vertex in the graph.
+     * @throws UncheckedIOException If the edge log could not be grown.
+     */
+    private void appendEdge(String start, String end, int weight){
+        int startIndex = indexOf(start);
+        int endIndex = indexOf(end);
+        if(weight < 0)
+            throw new IllegalArgumentException("Weight is negative.");
+        if(hasEdgeAt(startIndex, endIndex))
+            throw new IllegalStateException("Edge already exists in the graph.");
+        if(edgeCount == Integer.MAX_VALUE)
+            throw new IllegalStateException("The store has no room left for another edge.");
+        int degree = degreeAt(startIndex);
+        try{
+            if(degree == blockCapacityOf(startIndex))
+                grow(startIndex, degree);
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+        long block = blockOf(startIndex);
+        MappedByteBuffer segment = segmentOf(block);
+        int base = positionOf(block);
+        segment.putInt(base + degree * EDGE_BYTES, endIndex);
+        segment.putInt(base + degree * EDGE_BYTES + 4, weight);
+        index(segment, base, blockCapacityOf(startIndex), endIndex, degree);
+        table.putInt(vertexPosition(startIndex) + 12, degree + 1);
+        edgeCount++;
+        table.putLong(24, edgeCount);
+    }
+
+    /**
+     * Not supported, the store is append-only.
+     */
+    @Override
+    public void removeVertex(String object){
+        throw new UnsupportedOperationException("A MappedGraph is append-only.");
+    }
+
+    /**
+     * Not supported, the store is append-only.
+     */
+    @Override
+    public void removeEdge(String start, String end){
+        throw new UnsupportedOperationException("A MappedGraph is append-only.");
+    }
+
+    /**
+     * Not supported, the store is append-only.
+     */
+    @Override
+    public void disconnect(String start, String end){
+        throw new UnsupportedOperationException("A MappedGraph is append-only.");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<String> getVertices(){
+        return new HashSet<>(indices().keySet());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachVertex(Consumer<String> action){
+        for(int i = 0; i < vertexCount; i++)
+            action.accept(objectAt(i));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getSuccessors(String object){
+        int index = indexOf(object);
+        List<String> successors = new ArrayList<>(degreeAt(index));
+        forEachSuccessorIndex(index, end -> successors.add(objectAt(end)));
+        return successors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachSuccessor(String object, Consumer<String> action){
+        forEachSuccessorIndex(indexOf(object), end -> action.accept(objectAt(end)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachEdge(String start, ObjIntConsumer<String> action){
+        forEachEdgeIndex(indexOf(start), (end, weight) -> action.accept(objectAt(end), weight));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getPredecessors(String object){
+        int index = indexOf(object);
+        List<String> predecessors = new ArrayList<>();
+        for(int i = 0; i < vertexCount; i++)
+            if(hasEdgeAt(i, index))
+                predecessors.add(objectAt(i));
+        return predecessors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getWeight(String start, String end){
+        int startIndex = indexOf(start);
+        int edge = findEdge(startIndex, indexOf(end));
+        if(edge == NO_EDGE)
+            throw new NoSuchElementException("No edge between the two objects was found.");
+        long block = blockOf(startIndex);
+        return segmentOf(block).getInt(positionOf(block) + edge * EDGE_BYTES + 4);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getDegree(String object){
+        return degreeAt(indexOf(object));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getInDegree(String object){
+        return getPredecessors(object).size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasVertex(String object){
+        return indices().containsKey(object);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasEdge(String start, String end){
+        return hasEdgeAt(indexOf(start), indexOf(end));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty(){
+        return vertexCount == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int vertexCount(){
+        return vertexCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int edgeCount(){
+        return (int) edgeCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The file keeps its size.
+     */
+    @Override
+    public void clear(){
+        vertexCount = 0;
+        nameLength = 0;
+        edgeCount = 0;
+        edgeAreaLength = 0;
+        names = new String[vertexCapacity];
+        indices = null;
+        writeCounts();
+    }
+
+    /**
+     * Copies the graph into a new on-heap {@link Graph}.
+     */
+    @Override
+    public Graph<String> copy(){
+        GraphBuilder<String> builder = new GraphBuilder<>(vertexCount, (int) edgeCount);
+        for(int i = 0; i < vertexCount; i++)
+            builder.addVertex(objectAt(i));
+        for(int i = 0; i < vertexCount; i++){
+            String start = objectAt(i);
+            forEachEdgeIndex(i, (end, weight) -> builder.addEdge(start, objectAt(end), weight));
+        }
+        return builder.build();
+    }
+}
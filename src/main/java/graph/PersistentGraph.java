@@ -0,0 +1,402 @@
+package graph;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Represents a graph whose copies share their structure.
+ * {@link #copy()} runs in O(1): the copy and the original share all vertices and edge maps. A later mutation of
+ * either graph only copies the edge map of the vertex it touches, plus the O(log32 V) trie nodes leading to it.
+ * This makes it cheap to take a snapshot before every speculative edit.
+ */
+public final class PersistentGraph<T> implements IGraph<T> {
+
+    private PersistentHashMap<Vertex<T>, Map<Vertex<T>, Edge<T>>> adjacencyMap;
+    /**
+     * The edge maps that were created by this graph since its last copy, and can thus be changed in place.
+     */
+    private Set<Map<Vertex<T>, Edge<T>>> ownedEdgeMaps;
+    private int edgeCount;
+
+    public PersistentGraph(){
+        this(PersistentHashMap.empty(), 0);
+    }
+
+    private PersistentGraph(PersistentHashMap<Vertex<T>, Map<Vertex<T>, Edge<T>>> adjacencyMap, int edgeCount){
+        this.adjacencyMap = adjacencyMap;
+        this.ownedEdgeMaps = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.edgeCount = edgeCount;
+    }
+
+    /**
+     * Returns the edge map of the given vertex, after making sure this graph may change it.
+     */
+    private Map<Vertex<T>, Edge<T>> writableEdgeMap(Vertex<T> vertex, Map<Vertex<T>, Edge<T>> edgeMap){
+        if(ownedEdgeMaps.contains(edgeMap))
+            return edgeMap;
+        Map<Vertex<T>, Edge<T>> copy = new HashMap<>(edgeMap);
+        ownedEdgeMaps.add(copy);
+        adjacencyMap = adjacencyMap.with(vertex, copy);
+        return copy;
+    }
+
+    private Map<Vertex<T>, Edge<T>> edgeMapOf(T object){
+        Map<Vertex<T>, Edge<T>> edgeMap = adjacencyMap.get(new Vertex<>(object));
+        if(edgeMap == null)
+            throw new NoSuchElementException("The object is not a vertex in the graph.");
+        return edgeMap;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addVertex(T object){
+        Vertex<T> vertex = new Vertex<>(object);
+        if(adjacencyMap.containsKey(vertex))
+            throw new IllegalStateException("The Vertex already exists in the graph.");
+        Map<Vertex<T>, Edge<T>> edgeMap = new HashMap<>();
+        ownedEdgeMaps.add(edgeMap);
+        adjacencyMap = adjacencyMap.with(vertex, edgeMap);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addVertices(List<T> objects){
+        Objects.requireNonNull(objects, "List is null.");
+        for(T object : objects)
+            addVertex(object);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addEdge(T start, T end){
+        createAndStoreEdge(start, end, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addEdge(T start, T end, int weight){
+        createAndStoreEdge(start, end, weight);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addEdges(T start, List<T> ends){
+        Objects.requireNonNull(ends, "List is null.");
+        for(T end : ends)
+            createAndStoreEdge(start, end, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addEdges(T start, List<T> ends, List<Integer> weights){
+        Objects.requireNonNull(ends, "List is null.");
+        Objects.requireNonNull(weights, "List is null.");
+        if(weights.size() != ends.size())
+            throw new IllegalArgumentException("The List of weights is not the same length as the list of end objects.");
+        if(weights.contains(null))
+            throw new NullPointerException("A weight is null.");
+        for(int i = 0; i < ends.size(); i++)
+            createAndStoreEdge(start, ends.get(i), weights.get(i));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void connect(T start, T end){
+        createAndStoreEdge(start, end, 0);
+        createAndStoreEdge(end, start, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void connect(T start, T end, int weight){
+        createAndStoreEdge(start, end, weight);
+        createAndStoreEdge(end, start, weight);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void connectAll(T start, List<T> ends){
+        Objects.requireNonNull(ends, "List is null.");
+        for(T end : ends){
+            createAndStoreEdge(start, end, 0);
+            createAndStoreEdge(end, start, 0);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void connectAll(T start, List<T> ends, List<Integer> weights){
+        Objects.requireNonNull(ends, "List is null.");
+        Objects.requireNonNull(weights, "List is null.");
+        if(weights.size() != ends.size())
+            throw new IllegalArgumentException("The List of weights is not the same length as the list of end objects.");
+        if(weights.contains(null))
+            throw new NullPointerException("A weight is null.");
+        for(int i = 0; i < ends.size(); i++){
+            int weight = weights.get(i);
+            createAndStoreEdge(start, ends.get(i), weight);
+            createAndStoreEdge(ends.get(i), start, weight);
+        }
+    }
+
+    /**
+     * Creates and stores a directed edge starting at the given object and ending in the other, with the given weight.
+     * @param start The start object. Cannot be null.
+     * @param end The end object. Cannot be null.
+     * @param weight The weight. Cannot be negative.
+     *
+     * @throws IllegalStateException If an edge already existed between the two objects.
+     * @throws IllegalArgumentException If the weight is negative.
+     * @throws NoSuchElementException If the start or end object is not a vertex in the graph.
+     */
+    private void createAndStoreEdge(T start, T end, int weight){
+        Vertex<T> startVertex = new Vertex<>(start);
+        Vertex<T> endVertex = new Vertex<>(end);
+        Map<Vertex<T>, Edge<T>> edgeMap = adjacencyMap.get(startVertex);
+        if(edgeMap == null)
+            throw new NoSuchElementException("Start Vertex is not part of the graph.");
+        if(!adjacencyMap.containsKey(endVertex))
+            throw new NoSuchElementException("End Vertex is not part of the graph.");
+        Edge<T> edge = new Edge<>(startVertex, endVertex, weight);
+        if(edgeMap.containsKey(endVertex))
+            throw new IllegalStateException("Edge already exists in the graph.");
+        writableEdgeMap(startVertex, edgeMap).put(endVertex, edge);
+        edgeCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeVertex(T object){
+        Vertex<T> vertex = new Vertex<>(object);
+        Map<Vertex<T>, Edge<T>> outgoing = adjacencyMap.get(vertex);
+        if(outgoing == null)
+            return;
+        adjacencyMap = adjacencyMap.without(vertex);
+        ownedEdgeMaps.remove(outgoing);
+        edgeCount -= outgoing.size();
+        List<Vertex<T>> predecessors = new ArrayList<>();
+        adjacencyMap.forEach((start, edgeMap) -> {
+            if(edgeMap.containsKey(vertex))
+                predecessors.add(start);
+        });
+        for(Vertex<T> predecessor : predecessors){
+            writableEdgeMap(predecessor, adjacencyMap.get(predecessor)).remove(vertex);
+            edgeCount--;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeEdge(T start, T end){
+        Vertex<T> startVertex = new Vertex<>(start);
+        Vertex<T> endVertex = new Vertex<>(end);
+        Map<Vertex<T>, Edge<T>> edgeMap = adjacencyMap.get(startVertex);
+        if(edgeMap == null || !edgeMap.containsKey(endVertex))
+            return;
+        writableEdgeMap(startVertex, edgeMap).remove(endVertex);
+        edgeCount--;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void disconnect(T start, T end){
+        removeEdge(start, end);
+        removeEdge(end, start);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<T> getVertices(){
+        Set<T> vertices = HashSet.newHashSet(adjacencyMap.size());
+        adjacencyMap.forEach((vertex, edgeMap) -> vertices.add(vertex.getValue()));
+        return vertices;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachVertex(Consumer<T> action){
+        Objects.requireNonNull(action, "Action is null.");
+        adjacencyMap.forEach((vertex, edgeMap) -> action.accept(vertex.getValue()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getSuccessors(T object){
+        return edgeMapOf(object).keySet().stream()
+                .map(Vertex::getValue)
+                .toList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachSuccessor(T object, Consumer<T> action){
+        Objects.requireNonNull(action, "Action is null.");
+        for(Vertex<T> end : edgeMapOf(object).keySet())
+            action.accept(end.getValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachEdge(T start, ObjIntConsumer<T> action){
+        Objects.requireNonNull(action, "Action is null.");
+        for(Edge<T> edge : edgeMapOf(start).values())
+            action.accept(edge.getEnd().getValue(), edge.getWeight());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getPredecessors(T object){
+        edgeMapOf(object);
+        Vertex<T> vertex = new Vertex<>(object);
+        List<T> predecessors = new ArrayList<>();
+        adjacencyMap.forEach((start, edgeMap) -> {
+            if(edgeMap.containsKey(vertex))
+                predecessors.add(start.getValue());
+        });
+        return predecessors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getWeight(T start, T end){
+        Edge<T> edge = edgeMapOf(start).get(new Vertex<>(end));
+        if(edge == null)
+            throw new NoSuchElementException("No edge between the two objects was found.");
+        return edge.getWeight();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getDegree(T object){
+        return edgeMapOf(object).size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getInDegree(T object){
+        return getPredecessors(object).size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasVertex(T object){
+        return adjacencyMap.containsKey(new Vertex<>(object));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasEdge(T start, T end){
+        if(!hasVertex(end))
+            throw new NoSuchElementException("End Vertex not found.");
+        return edgeMapOf(start).containsKey(new Vertex<>(end));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty(){
+        return adjacencyMap.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int vertexCount(){
+        return adjacencyMap.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int edgeCount(){
+        return edgeCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear(){
+        adjacencyMap = PersistentHashMap.empty();
+        ownedEdgeMaps = Collections.newSetFromMap(new IdentityHashMap<>());
+        edgeCount = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Runs in O(1). From now on, both graphs copy an edge map before changing it.
+     */
+    @Override
+    public PersistentGraph<T> copy(){
+        ownedEdgeMaps = Collections.newSetFromMap(new IdentityHashMap<>());
+        return new PersistentGraph<>(adjacencyMap, edgeCount);
+    }
+
+    @Override
+    public String toString(){
+        StringBuilder builder = new StringBuilder();
+        builder.append("PersistentGraph[");
+        adjacencyMap.forEach((vertex, edgeMap) -> {
+            builder.append("Vertex[").append(vertex.getValue()).append("] -> {");
+            for(Vertex<T> end : edgeMap.keySet())
+                builder.append("Vertex[").append(end.getValue()).append(']');
+            builder.append("}, ");
+        });
+        if(!adjacencyMap.isEmpty())
+            builder.delete(builder.length() - 2, builder.length());
+        builder.append("]");
+        return builder.toString();
+    }
+}
@@ -0,0 +1,169 @@
+package graph;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Represents an immutable hash map that shares its structure with the maps it was derived from.
+ * The entries are stored in a hash trie with 32 children per level, so adding or removing an entry only copies the
+ * O(log32 n) nodes on the path to it.
+ */
+final class PersistentHashMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MAX_SHIFT = 30;
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(new Object[WIDTH], 0);
+
+    /**
+     * Holds either null, a {@link Leaf}, or a nested Object[] of children.
+     */
+    private final Object[] root;
+    private final int size;
+
+    /**
+     * Represents an entry. Entries whose keys share the whole hash are chained.
+     */
+    private record Leaf(Object key, Object value, int hash, Leaf next) {}
+
+    private PersistentHashMap(Object[] root, int size){
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty(){
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    private static int hash(Object key){
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    int size(){
+        return size;
+    }
+
+    boolean isEmpty(){
+        return size == 0;
+    }
+
+    boolean containsKey(K key){
+        return get(key) != null;
+    }
+
+    /**
+     * @return The value of the given key, or null if absent.
+     */
+    @SuppressWarnings("unchecked")
+    V get(K key){
+        Objects.requireNonNull(key, "Key is null.");
+        int hash = hash(key);
+        Object[] node = root;
+        for(int shift = 0; ; shift += BITS){
+            Object child = node[(hash >>> shift) & (WIDTH - 1)];
+            if(child instanceof Object[] branch){
+                node = branch;
+                continue;
+            }
+            for(Leaf leaf = (Leaf) child; leaf != null; leaf = leaf.next)
+                if(leaf.hash == hash && leaf.key.equals(key))
+                    return (V) leaf.value;
+            return null;
+        }
+    }
+
+    /**
+     * @return A map holding the entries of this map, with the given key mapped to the given value.
+     */
+    PersistentHashMap<K, V> with(K key, V value){
+        Objects.requireNonNull(key, "Key is null.");
+        Objects.requireNonNull(value, "Value is null.");
+        boolean[] added = new boolean[1];
+        Object[] newRoot = with(root, 0, key, value, hash(key), added);
+        return new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    private static Object[] with(Object[] node, int shift, Object key, Object value, int hash, boolean[] added){
+        Object[] copy = node.clone();
+        int slot = (hash >>> shift) & (WIDTH - 1);
+        Object child = node[slot];
+        if(child instanceof Object[] branch){
+            copy[slot] = with(branch, shift + BITS, key, value, hash, added);
+            return copy;
+        }
+        Leaf leaf = (Leaf) child;
+        if(leaf == null){
+            added[0] = true;
+            copy[slot] = new Leaf(key, value, hash, null);
+        }else if(leaf.hash == hash || shift >= MAX_SHIFT){
+            copy[slot] = withInChain(leaf, key, value, hash, added);
+        }else{
+            Object[] branch = new Object[WIDTH];
+            for(Leaf current = leaf; current != null; current = current.next){
+                int childSlot = (current.hash >>> (shift + BITS)) & (WIDTH - 1);
+                branch[childSlot] = new Leaf(current.key, current.value, current.hash, (Leaf) branch[childSlot]);
+            }
+            copy[slot] = with(branch, shift + BITS, key, value, hash, added);
+        }
+        return copy;
+    }
+
+    private static Leaf withInChain(Leaf chain, Object key, Object value, int hash, boolean[] added){
+        if(chain == null){
+            added[0] = true;
+            return new Leaf(key, value, hash, null);
+        }
+        if(chain.hash == hash && chain.key.equals(key))
+            return new Leaf(key, value, hash, chain.next);
+        return new Leaf(chain.key, chain.value, chain.hash, withInChain(chain.next, key, value, hash, added));
+    }
+
+    /**
+     * @return A map holding the entries of this map, without the given key.
+     */
+    PersistentHashMap<K, V> without(K key){
+        Objects.requireNonNull(key, "Key is null.");
+        if(!containsKey(key))
+            return this;
+        return new PersistentHashMap<>(without(root, 0, key, hash(key)), size - 1);
+    }
+
+    private static Object[] without(Object[] node, int shift, Object key, int hash){
+        Object[] copy = node.clone();
+        int slot = (hash >>> shift) & (WIDTH - 1);
+        Object child = node[slot];
+        if(child instanceof Object[] branch)
+            copy[slot] = without(branch, shift + BITS, key, hash);
+        else
+            copy[slot] = withoutInChain((Leaf) child, key, hash);
+        return copy;
+    }
+
+    private static Leaf withoutInChain(Leaf chain, Object key, int hash){
+        if(chain.hash == hash && chain.key.equals(key))
+            return chain.next;
+        return new Leaf(chain.key, chain.value, chain.hash, withoutInChain(chain.next, key, hash));
+    }
+
+    /**
+     * Performs the given action on every entry.
+     */
+    void forEach(BiConsumer<K, V> action){
+        forEach(root, action);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> void forEach(Object[] node, BiConsumer<K, V> action){
+        for(Object child : node){
+            if(child instanceof Object[] branch){
+                forEach(branch, action);
+                continue;
+            }
+            for(Leaf leaf = (Leaf) child; leaf != null; leaf = leaf.next)
+                action.accept((K) leaf.key, (V) leaf.value);
+        }
+    }
+}
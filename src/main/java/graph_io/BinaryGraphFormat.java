@@ -0,0 +1,52 @@
+package graph_io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Holds the constants and the variable-length integer coding shared by {@link BinaryGraphWriter} and
+ * {@link BinaryGraphReader}.
+ * A file starts with the magic bytes "SSGB" and a version, followed by any amount of graph records, and ends with
+ * an end marker. A graph record holds:
+ * <pre>
+ * varint vertex count, varint flags
+ * per vertex: varint name length, UTF-8 name bytes
+ * per vertex: varint degree, then the end indices in ascending order as varint gaps
+ *             (the first index as is, every next one as the difference with its predecessor minus one)
+ * per edge, only if the weighted flag is set: varint weight, never negative
+ * </pre>
+ */
+final class BinaryGraphFormat {
+
+    static final byte[] MAGIC = {'S', 'S', 'G', 'B'};
+    static final int VERSION = 1;
+    static final int GRAPH = 1;
+    static final int END = 0;
+    static final int WEIGHTED = 1;
+
+    private BinaryGraphFormat(){
+    }
+
+    static void writeVarInt(OutputStream out, int value) throws IOException {
+        while((value & ~0x7F) != 0){
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    static int readVarInt(InputStream in) throws IOException {
+        int value = 0;
+        for(int shift = 0; shift < 35; shift += 7){
+            int b = in.read();
+            if(b < 0)
+                throw new EOFException("Unexpected end of the graph file.");
+            value |= (b & 0x7F) << shift;
+            if((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Malformed variable-length integer.");
+    }
+}
@@ -0,0 +1,163 @@
+package graph_io;
+
+import graph.Graph;
+import graph.GraphBuilder;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Reads graphs of strings written by a {@link BinaryGraphWriter}.
+ */
+public final class BinaryGraphReader implements Closeable {
+
+    private final InputStream in;
+    private boolean finished;
+    private byte[] nameBuffer = new byte[64];
+
+    /**
+     * Creates a new {@link BinaryGraphReader} and reads the file header.
+     * @param in The stream to read from. Cannot be null. Is closed when this reader is closed.
+     *
+     * @throws IOException If the header could not be read, or is not of a supported version.
+     */
+    public BinaryGraphReader(InputStream in) throws IOException {
+        Objects.requireNonNull(in, "Stream is null.");
+        this.in = in instanceof BufferedInputStream ? in : new BufferedInputStream(in, 1 << 16);
+        byte[] magic = this.in.readNBytes(BinaryGraphFormat.MAGIC.length);
+        if(!Arrays.equals(magic, BinaryGraphFormat.MAGIC))
+            throw new IOException("The stream is not a binary graph file.");
+        int version = BinaryGraphFormat.readVarInt(this.in);
+        if(version != BinaryGraphFormat.VERSION)
+            throw new IOException("Unsupported binary graph version " + version + ".");
+    }
+
+    /**
+     * Creates a new {@link BinaryGraphReader} that reads from the given file.
+     * @param path The path. Cannot be null.
+     *
+     * @throws IOException If the file could not be opened, or is not of a supported version.
+     */
+    public BinaryGraphReader(Path path) throws IOException {
+        this(Files.newInputStream(Objects.requireNonNull(path, "Path is null.")));
+    }
+
+    /**
+     * Reads all graphs in the given file.
+     * @param path The path. Cannot be null.
+     *
+     * @return The graphs, in the order they were written.
+     * @throws IOException If the file could not be read, is corrupt, or ends before the end record.
+     */
+    public static List<Graph<String>> readAll(Path path) throws IOException {
+        try(BinaryGraphReader reader = new BinaryGraphReader(path)){
+            List<Graph<String>> graphs = new ArrayList<>();
+            Graph<String> graph;
+            while((graph = reader.read()) != null)
+                graphs.add(graph);
+            return graphs;
+        }
+    }
+
+    /**
+     * Reads the next graph.
+     *
+     * @return The graph, or null if all graphs were read.
+     * @throws EOFException If the stream ends before the end record.
+     * @throws IOException If the graph could not be read, or is corrupt.
+     */
+    public Graph<String> read() throws IOException {
+        if(finished)
+            return null;
+        int tag = in.read();
+        if(tag < 0)
+            throw new EOFException("Unexpected end of the graph file: the end record is missing.");
+        if(tag == BinaryGraphFormat.END){
+            finished = true;
+            return null;
+        }
+        if(tag != BinaryGraphFormat.GRAPH)
+            throw new IOException("Corrupt binary graph file: unknown record " + tag + ".");
+        int n = BinaryGraphFormat.readVarInt(in);
+        if(n < 0)
+            throw new IOException("Corrupt binary graph file: negative vertex count.");
+        boolean weighted = (BinaryGraphFormat.readVarInt(in) & BinaryGraphFormat.WEIGHTED) != 0;
+        // Grows with the names actually read, so a corrupt count cannot allocate a huge array up front.
+        String[] names = new String[Math.min(n, 1 << 12)];
+        for(int i = 0; i < n; i++){
+            if(i == names.length)
+                names = Arrays.copyOf(names, (int) Math.min(n, 2L * names.length));
+            names[i] = readName();
+        }
+        int[] starts = new int[16];
+        int[] ends = new int[16];
+        int edgeCount = 0;
+        for(int i = 0; i < n; i++){
+            int degree = BinaryGraphFormat.readVarInt(in);
+            if(degree < 0 || degree > n)
+                throw new IOException("Corrupt binary graph file: invalid degree " + degree + ".");
+            int end = -1;
+            for(int j = 0; j < degree; j++){
+                int gap = BinaryGraphFormat.readVarInt(in);
+                if(gap < 0 || gap >= n - end - 1)
+                    throw new IOException("Corrupt binary graph file: edge towards unknown vertex.");
+                end += gap + 1;
+                if(edgeCount == starts.length){
+                    starts = Arrays.copyOf(starts, edgeCount * 2);
+                    ends = Arrays.copyOf(ends, edgeCount * 2);
+                }
+                starts[edgeCount] = i;
+                ends[edgeCount] = end;
+                edgeCount++;
+            }
+        }
+        try{
+            GraphBuilder<String> builder = new GraphBuilder<>(n, edgeCount);
+            for(String name : names)
+                builder.addVertex(name);
+            for(int edge = 0; edge < edgeCount; edge++){
+                int weight = weighted ? BinaryGraphFormat.readVarInt(in) : 0;
+                if(weight < 0)
+                    throw new IOException("Corrupt binary graph file: negative weight.");
+                builder.addEdge(names[starts[edge]], names[ends[edge]], weight);
+            }
+            return builder.build();
+        }catch(IllegalStateException | IllegalArgumentException | NoSuchElementException e){
+            throw new IOException("Corrupt binary graph file: " + e.getMessage(), e);
+        }
+    }
+
+    private String readName() throws IOException {
+        int length = BinaryGraphFormat.readVarInt(in);
+        if(length < 0)
+            throw new IOException("Corrupt binary graph file: negative name length.");
+        if(length > 1 << 16){
+            // Read in bounded steps, so a corrupt length fails at the end of the stream instead of allocating.
+            byte[] bytes = in.readNBytes(length);
+            if(bytes.length != length)
+                throw new EOFException("Unexpected end of the graph file.");
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        if(length > nameBuffer.length)
+            nameBuffer = new byte[Math.max(length, nameBuffer.length * 2)];
+        if(in.readNBytes(nameBuffer, 0, length) != length)
+            throw new EOFException("Unexpected end of the graph file.");
+        return new String(nameBuffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Closes the underlying stream.
+     * @throws IOException If the stream could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,99 @@
+package graph_io;
+
+import graph.CsrGraph;
+import graph.IGraph;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Writes graphs of strings in the compact binary format described in {@link BinaryGraphFormat}.
+ * Any amount of graphs can be written to the same stream; they are read back in the same order.
+ */
+public final class BinaryGraphWriter implements Closeable {
+
+    private final OutputStream out;
+    private boolean closed;
+
+    /**
+     * Creates a new {@link BinaryGraphWriter} and writes the file header.
+     * @param out The stream to write to. Cannot be null. Is closed when this writer is closed.
+     *
+     * @throws IOException If the header could not be written.
+     */
+    public BinaryGraphWriter(OutputStream out) throws IOException {
+        Objects.requireNonNull(out, "Stream is null.");
+        this.out = out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out, 1 << 16);
+        this.out.write(BinaryGraphFormat.MAGIC);
+        BinaryGraphFormat.writeVarInt(this.out, BinaryGraphFormat.VERSION);
+    }
+
+    /**
+     * Creates a new {@link BinaryGraphWriter} that writes to the given file, replacing its contents.
+     * @param path The path. Cannot be null.
+     *
+     * @throws IOException If the file could not be opened.
+     */
+    public BinaryGraphWriter(Path path) throws IOException {
+        this(Files.newOutputStream(Objects.requireNonNull(path, "Path is null.")));
+    }
+
+    /**
+     * Writes the given graph.
+     * @param graph The graph. Cannot be null. Cannot contain a negative weight.
+     *
+     * @throws IllegalArgumentException If the graph contains a negative weight. Nothing is written in that case.
+     * @throws IOException If the graph could not be written.
+     */
+    public void write(IGraph<String> graph) throws IOException {
+        Objects.requireNonNull(graph, "Graph is null.");
+        if(closed)
+            throw new IllegalStateException("The writer is closed.");
+        CsrGraph<String> csr = CsrGraph.of(graph);
+        int n = csr.vertexCount();
+        boolean weighted = false;
+        for(int edge = 0; edge < csr.edgeCount(); edge++){
+            if(csr.weightAt(edge) < 0)
+                throw new IllegalArgumentException("Weight is negative.");
+            weighted |= csr.weightAt(edge) != 0;
+        }
+        out.write(BinaryGraphFormat.GRAPH);
+        BinaryGraphFormat.writeVarInt(out, n);
+        BinaryGraphFormat.writeVarInt(out, weighted ? BinaryGraphFormat.WEIGHTED : 0);
+        for(int i = 0; i < n; i++){
+            byte[] name = csr.objectAt(i).getBytes(StandardCharsets.UTF_8);
+            BinaryGraphFormat.writeVarInt(out, name.length);
+            out.write(name);
+        }
+        for(int i = 0; i < n; i++){
+            BinaryGraphFormat.writeVarInt(out, csr.degreeAt(i));
+            int previous = -1;
+            for(int edge = csr.edgeStart(i); edge < csr.edgeEnd(i); edge++){
+                BinaryGraphFormat.writeVarInt(out, csr.targetAt(edge) - previous - 1);
+                previous = csr.targetAt(edge);
+            }
+        }
+        if(weighted)
+            for(int edge = 0; edge < csr.edgeCount(); edge++)
+                BinaryGraphFormat.writeVarInt(out, csr.weightAt(edge));
+    }
+
+    /**
+     * Writes the end marker and closes the underlying stream.
+     * @throws IOException If the stream could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if(closed)
+            return;
+        closed = true;
+        try{
+            out.write(BinaryGraphFormat.END);
+        }finally{
+            out.close();
+        }
+    }
+}
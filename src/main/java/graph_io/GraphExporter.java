@@ -0,0 +1,173 @@
+package graph_io;
+
+import graph.IGraph;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Writes graphs as text, one vertex at a time, so no string of a whole graph is ever built.
+ * Any amount of graphs can be written to the same output. Vertices are written with {@link String#valueOf(Object)}.
+ */
+public final class GraphExporter implements Closeable, Flushable {
+
+    /**
+     * The text format of an exporter.
+     */
+    public enum Format {
+        /**
+         * The format of {@link GraphReader}: a line per vertex with its successors, and a blank line after every graph.
+         * Vertices cannot hold separators.
+         */
+        CSV,
+        /**
+         * A Graphviz digraph per graph. Edges with a non-zero weight are labeled with it.
+         */
+        DOT
+    }
+
+    private final Writer out;
+    private final Format format;
+    private final StringBuilder line = new StringBuilder();
+    private int graphs;
+    private boolean closed;
+
+    /**
+     * Creates a new {@link GraphExporter}.
+     * @param out The writer to write to. Cannot be null. Is closed when this exporter is closed.
+     * @param format The format. Cannot be null.
+     */
+    public GraphExporter(Writer out, Format format){
+        Objects.requireNonNull(out, "Writer is null.");
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out, 1 << 16);
+        this.format = Objects.requireNonNull(format, "Format is null.");
+    }
+
+    /**
+     * Creates a new {@link GraphExporter} that writes UTF-8 text to the given channel.
+     * @param channel The channel to write to. Cannot be null. Is closed when this exporter is closed.
+     * @param format The format. Cannot be null.
+     */
+    public GraphExporter(WritableByteChannel channel, Format format){
+        this(Channels.newWriter(Objects.requireNonNull(channel, "Channel is null."), StandardCharsets.UTF_8), format);
+    }
+
+    /**
+     * Creates a new {@link GraphExporter} that writes to the given UTF-8 file, replacing its contents.
+     * @param path The path. Cannot be null.
+     * @param format The format. Cannot be null.
+     *
+     * @throws IOException If the file could not be opened.
+     */
+    public GraphExporter(Path path, Format format) throws IOException {
+        this(Files.newBufferedWriter(Objects.requireNonNull(path, "Path is null."), StandardCharsets.UTF_8), format);
+    }
+
+    /**
+     * Writes the given graph.
+     * @param graph The graph. Cannot be null.
+     *
+     * @throws IOException If the graph could not be written.
+     */
+    public <T> void write(IGraph<T> graph) throws IOException {
+        Objects.requireNonNull(graph, "Graph is null.");
+        if(closed)
+            throw new IllegalStateException("The exporter is closed.");
+        try{
+            if(format == Format.CSV)
+                writeCsv(graph);
+            else
+                writeDot(graph);
+        }catch(UncheckedIOException e){
+            throw e.getCause();
+        }
+        graphs++;
+    }
+
+    private <T> void writeCsv(IGraph<T> graph) throws IOException {
+        graph.forEachVertex(vertex -> {
+            line.setLength(0);
+            line.append(vertex).append(',');
+            int start = line.length();
+            graph.forEachSuccessor(vertex, successor -> {
+                if(line.length() > start)
+                    line.append(' ');
+                line.append(successor);
+            });
+            line.append('\n');
+            flushLine();
+        });
+        out.write('\n');
+    }
+
+    private <T> void writeDot(IGraph<T> graph) throws IOException {
+        out.write("digraph g" + graphs + " {\n");
+        graph.forEachVertex(vertex -> {
+            line.setLength(0);
+            line.append("  ");
+            appendQuoted(vertex);
+            line.append(";\n");
+            graph.forEachEdge(vertex, (successor, weight) -> {
+                line.append("  ");
+                appendQuoted(vertex);
+                line.append(" -> ");
+                appendQuoted(successor);
+                if(weight != 0)
+                    line.append(" [label=").append(weight).append(']');
+                line.append(";\n");
+            });
+            flushLine();
+        });
+        out.write("}\n");
+    }
+
+    private void appendQuoted(Object vertex){
+        String value = String.valueOf(vertex);
+        line.append('"');
+        for(int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            if(c == '"' || c == '\\')
+                line.append('\\');
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    /**
+     * Writes the line of the current vertex. Called from the callbacks of the graph, so failures are thrown as
+     * {@link UncheckedIOException} and unwrapped by {@link #write(IGraph)}.
+     */
+    private void flushLine(){
+        try{
+            out.append(line);
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flushes the buffered text to the underlying writer.
+     * @throws IOException If the text could not be written.
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Flushes and closes the underlying writer.
+     * @throws IOException If the writer could not be flushed or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if(closed)
+            return;
+        closed = true;
+        out.close();
+    }
+}
@@ -0,0 +1,217 @@
+package graph_io;
+
+import graph.Graph;
+import graph.GraphBuilder;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads graphs of strings from the text format of the test corpora, one graph at a time.
+ * Every line holds a vertex, a comma, and the vertices it has an edge towards, separated by spaces:
+ * <pre>
+ * a,b c
+ * b,a
+ * c,
+ * </pre>
+ * Graphs are separated by blank lines. A line "endoffile," ends the input. A leading byte order mark is skipped.
+ * Only the graph being read is held in memory, so corpora of any size can be processed at constant memory.
+ */
+public final class GraphReader implements Closeable, Iterable<Graph<String>> {
+
+    private static final String END_OF_FILE = "endoffile,";
+
+    private final BufferedReader in;
+    private boolean started;
+    private boolean finished;
+    private int lineNumber;
+
+    /**
+     * Creates a new {@link GraphReader}.
+     * @param reader The reader to read from. Cannot be null. Is closed when this reader is closed.
+     */
+    public GraphReader(Reader reader){
+        Objects.requireNonNull(reader, "Reader is null.");
+        this.in = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader, 1 << 16);
+    }
+
+    /**
+     * Creates a new {@link GraphReader} that reads UTF-8 text from the given stream.
+     * @param in The stream to read from. Cannot be null. Is closed when this reader is closed.
+     */
+    public GraphReader(InputStream in){
+        this(new InputStreamReader(Objects.requireNonNull(in, "Stream is null."), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a new {@link GraphReader} that reads from the given UTF-8 file.
+     * @param path The path. Cannot be null.
+     *
+     * @throws IOException If the file could not be opened.
+     */
+    public GraphReader(Path path) throws IOException {
+        this(Files.newBufferedReader(Objects.requireNonNull(path, "Path is null."), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads all graphs in the given file.
+     * @param path The path. Cannot be null.
+     *
+     * @return The graphs, in the order of the file.
+     * @throws IOException If the file could not be read, or holds an invalid graph.
+     */
+    public static List<Graph<String>> readAll(Path path) throws IOException {
+        try(GraphReader reader = new GraphReader(path)){
+            List<Graph<String>> graphs = new ArrayList<>();
+            Graph<String> graph;
+            while((graph = reader.read()) != null)
+                graphs.add(graph);
+            return graphs;
+        }
+    }
+
+    /**
+     * Lazily reads the graphs in the given file. The file is closed when the stream is closed.
+     * @param path The path. Cannot be null.
+     *
+     * @return The graphs, in the order of the file.
+     * @throws IOException If the file could not be opened.
+     */
+    public static Stream<Graph<String>> stream(Path path) throws IOException {
+        return new GraphReader(path).stream();
+    }
+
+    /**
+     * Reads the next graph. Blocks without vertices are skipped.
+     *
+     * @return The graph, or null if all graphs were read.
+     * @throws IOException If the input could not be read, or holds an invalid graph.
+     */
+    public Graph<String> read() throws IOException {
+        if(!started){
+            started = true;
+            in.mark(1);
+            if(in.read() != '\uFEFF')
+                in.reset();
+        }
+        GraphBuilder<String> builder = null;
+        int firstLine = 0;
+        while(!finished){
+            String line = in.readLine();
+            if(line == null || line.equals(END_OF_FILE)){
+                finished = true;
+                break;
+            }
+            lineNumber++;
+            if(line.isBlank()){
+                if(builder != null)
+                    return build(builder, firstLine);
+                continue;
+            }
+            if(builder == null){
+                builder = new GraphBuilder<>();
+                firstLine = lineNumber;
+            }
+            parseLine(line, builder);
+        }
+        return builder == null ? null : build(builder, firstLine);
+    }
+
+    /**
+     * Adds the vertex of the given line and its edges to the given builder. Splits the line by hand, so no
+     * intermediate arrays are created.
+     */
+    private static void parseLine(String line, GraphBuilder<String> builder){
+        int comma = line.indexOf(',');
+        String vertex = (comma < 0 ? line : line.substring(0, comma)).trim();
+        builder.addVertex(vertex);
+        if(comma < 0)
+            return;
+        int length = line.length();
+        int start = comma + 1;
+        while(start < length){
+            while(start < length && isSeparator(line.charAt(start)))
+                start++;
+            int end = start;
+            while(end < length && !isSeparator(line.charAt(end)))
+                end++;
+            if(end > start)
+                builder.addEdge(vertex, line.substring(start, end));
+            start = end;
+        }
+    }
+
+    private static boolean isSeparator(char c){
+        return c == ' ' || c == ',' || c == '\t';
+    }
+
+    private Graph<String> build(GraphBuilder<String> builder, int firstLine) throws IOException {
+        try{
+            return builder.build();
+        }catch(IllegalStateException | NoSuchElementException e){
+            throw new IOException("Invalid graph at line " + firstLine + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns an iterator that lazily reads the remaining graphs. Failures to read are thrown as
+     * {@link UncheckedIOException}.
+     */
+    @Override
+    public Iterator<Graph<String>> iterator(){
+        return new Iterator<>() {
+            private Graph<String> next;
+
+            @Override
+            public boolean hasNext(){
+                if(next == null){
+                    try{
+                        next = read();
+                    }catch(IOException e){
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Graph<String> next(){
+                if(!hasNext())
+                    throw new NoSuchElementException("No graphs left.");
+                Graph<String> graph = next;
+                next = null;
+                return graph;
+            }
+        };
+    }
+
+    /**
+     * Returns a sequential stream that lazily reads the remaining graphs. This reader is closed when the stream is
+     * closed. Failures to read are thrown as {@link UncheckedIOException}.
+     */
+    public Stream<Graph<String>> stream(){
+        Spliterator<Graph<String>> spliterator = Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try{
+                close();
+            }catch(IOException e){
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Closes the underlying reader.
+     * @throws IOException If the reader could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
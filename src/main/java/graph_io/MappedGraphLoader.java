@@ -0,0 +1,339 @@
+package graph_io;
+
+import graph.Graph;
+import graph.GraphBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Loads all graphs of a file in the text format of {@link GraphReader}, in parallel.
+ * The file is split into chunks at blank lines, so every chunk holds whole graphs. Every chunk is memory-mapped and
+ * parsed on its own thread, straight from the mapped bytes: names are only decoded once per graph, by looking the
+ * bytes up in a hash table of the names seen so far, and lines are never split into arrays.
+ */
+public final class MappedGraphLoader {
+
+    private static final byte[] END_OF_FILE = "endoffile,".getBytes(StandardCharsets.US_ASCII);
+    private static final long MIN_CHUNK_SIZE = 1 << 16;
+    private static final long MAX_CHUNK_SIZE = 1 << 28;
+    private static final int SCAN_WINDOW = 1 << 16;
+
+    private MappedGraphLoader(){
+
+    }
+
+    /**
+     * Loads all graphs in the given file, using one thread per core.
+     * @see #load(Path, int)
+     */
+    public static List<Graph<String>> load(Path path) throws IOException {
+        return load(path, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Loads all graphs in the given file.
+     * @param path The path. Cannot be null.
+     * @param parallelism The amount of threads that parse chunks.
+     *
+     * @return The graphs, in the order of the file.
+     * @throws IOException If the file could not be read, or holds an invalid graph.
+     * @throws IllegalArgumentException If the parallelism is smaller than 1.
+     */
+    public static List<Graph<String>> load(Path path, int parallelism) throws IOException {
+        Objects.requireNonNull(path, "Path is null.");
+        if(parallelism < 1)
+            throw new IllegalArgumentException("Parallelism is smaller than 1.");
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            long[] bounds = split(channel, parallelism);
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            List<Chunk> chunks;
+            try{
+                chunks = pool.submit(() -> IntStream.range(0, bounds.length - 1).parallel()
+                        .mapToObj(i -> parse(channel, bounds[i], bounds[i + 1])).toList()).join();
+            }catch(UncheckedIOException e){
+                throw e.getCause();
+            }finally{
+                pool.shutdown();
+            }
+            List<Graph<String>> graphs = new ArrayList<>();
+            for(Chunk chunk : chunks){
+                graphs.addAll(chunk.graphs);
+                if(chunk.ended)
+                    break;
+            }
+            return graphs;
+        }
+    }
+
+    /**
+     * Returns the amount of chunks {@link #load(Path, int)} splits the given file into.
+     * @param path The path. Cannot be null.
+     * @param parallelism The amount of threads that parse chunks.
+     *
+     * @return The amount of chunks.
+     * @throws IOException If the file could not be read.
+     * @throws IllegalArgumentException If the parallelism is smaller than 1.
+     */
+    public static int chunkCount(Path path, int parallelism) throws IOException {
+        Objects.requireNonNull(path, "Path is null.");
+        if(parallelism < 1)
+            throw new IllegalArgumentException("Parallelism is smaller than 1.");
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            return split(channel, parallelism).length - 1;
+        }
+    }
+
+    /**
+     * Holds the graphs of a chunk, and whether the chunk held the end of file marker.
+     */
+    private record Chunk(List<Graph<String>> graphs, boolean ended) {}
+
+    /**
+     * Splits the file into chunks that start right after a blank line, or at the start of the file.
+     * Aims for four chunks per thread, of at least MIN_CHUNK_SIZE bytes, but never for fewer chunks than threads, so
+     * small files are parsed in parallel too. A chunk ends at the first blank line after its target size, so a file
+     * with few graph boundaries yields fewer chunks.
+     *
+     * @return The start of every chunk, followed by the size of the file.
+     */
+    private static long[] split(FileChannel channel, int parallelism) throws IOException {
+        long size = channel.size();
+        long target = Math.max(MIN_CHUNK_SIZE, size / (4L * parallelism));
+        if(size / target < parallelism)
+            target = Math.max(1, (size + parallelism - 1) / parallelism);
+        target = Math.min(MAX_CHUNK_SIZE, target);
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer window = ByteBuffer.allocate(SCAN_WINDOW);
+        long position = target;
+        while(position < size){
+            long boundary = nextBoundary(channel, position, window);
+            if(boundary >= size)
+                break;
+            bounds.add(boundary);
+            position = boundary + target;
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * @return The position after the first blank line at or after the given position, or the size of the file.
+     */
+    private static long nextBoundary(FileChannel channel, long position, ByteBuffer window) throws IOException {
+        // Holds whether only whitespace was read since the last line feed.
+        boolean lineEmpty = false;
+        while(true){
+            window.clear();
+            int read = channel.read(window, position);
+            if(read <= 0)
+                return channel.size();
+            for(int i = 0; i < read; i++){
+                byte b = window.get(i);
+                if(b == '\n'){
+                    if(lineEmpty)
+                        return position + i + 1;
+                    lineEmpty = true;
+                }else if(b != '\r' && b != ' ' && b != '\t'){
+                    lineEmpty = false;
+                }
+            }
+            position += read;
+        }
+    }
+
+    private static Chunk parse(FileChannel channel, long start, long end){
+        try{
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            return new ChunkParser(buffer, start).parse();
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses the graphs of a single mapped chunk.
+     */
+    private static final class ChunkParser {
+
+        private final ByteBuffer buffer;
+        private final long offset;
+        private final int limit;
+        private byte[] scratch = new byte[64];
+        // An open-addressing hash table from the bytes of a name to the name, for the current graph.
+        private int[] slotStart = new int[64];
+        private int[] slotLength = new int[64];
+        private String[] slotName = new String[64];
+        private int names;
+
+        ChunkParser(ByteBuffer buffer, long offset){
+            this.buffer = buffer;
+            this.offset = offset;
+            this.limit = buffer.limit();
+        }
+
+        Chunk parse() throws IOException {
+            List<Graph<String>> graphs = new ArrayList<>();
+            int position = 0;
+            if(offset == 0 && limit >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB
+                    && buffer.get(2) == (byte) 0xBF)
+                position = 3;
+            GraphBuilder<String> builder = null;
+            int graphStart = position;
+            while(position < limit){
+                int lineEnd = position;
+                while(lineEnd < limit && buffer.get(lineEnd) != '\n')
+                    lineEnd++;
+                int contentEnd = lineEnd;
+                while(contentEnd > position && isSpace(buffer.get(contentEnd - 1)))
+                    contentEnd--;
+                int contentStart = position;
+                while(contentStart < contentEnd && isSpace(buffer.get(contentStart)))
+                    contentStart++;
+                if(isEndOfFile(contentStart, contentEnd)){
+                    if(builder != null)
+                        graphs.add(build(builder, graphStart));
+                    return new Chunk(graphs, true);
+                }
+                if(contentStart == contentEnd){
+                    if(builder != null){
+                        graphs.add(build(builder, graphStart));
+                        builder = null;
+                    }
+                }else{
+                    if(builder == null){
+                        builder = new GraphBuilder<>();
+                        graphStart = position;
+                        clearNames();
+                    }
+                    parseLine(contentStart, contentEnd, builder);
+                }
+                position = lineEnd + 1;
+            }
+            if(builder != null)
+                graphs.add(build(builder, graphStart));
+            return new Chunk(graphs, false);
+        }
+
+        private void parseLine(int start, int end, GraphBuilder<String> builder){
+            int comma = start;
+            while(comma < end && buffer.get(comma) != ',')
+                comma++;
+            int vertexEnd = comma;
+            while(vertexEnd > start && isSpace(buffer.get(vertexEnd - 1)))
+                vertexEnd--;
+            String vertex = name(start, vertexEnd);
+            builder.addVertex(vertex);
+            int position = comma + 1;
+            while(position < end){
+                while(position < end && isSeparator(buffer.get(position)))
+                    position++;
+                int tokenEnd = position;
+                while(tokenEnd < end && !isSeparator(buffer.get(tokenEnd)))
+                    tokenEnd++;
+                if(tokenEnd > position)
+                    builder.addEdge(vertex, name(position, tokenEnd));
+                position = tokenEnd;
+            }
+        }
+
+        private boolean isEndOfFile(int start, int end){
+            if(end - start != END_OF_FILE.length)
+                return false;
+            for(int i = 0; i < END_OF_FILE.length; i++)
+                if(buffer.get(start + i) != END_OF_FILE[i])
+                    return false;
+            return true;
+        }
+
+        private Graph<String> build(GraphBuilder<String> builder, int graphStart) throws IOException {
+            try{
+                return builder.build();
+            }catch(IllegalStateException | NoSuchElementException e){
+                throw new IOException("Invalid graph at byte " + (offset + graphStart) + ": " + e.getMessage(), e);
+            }
+        }
+
+        private void clearNames(){
+            Arrays.fill(slotName, null);
+            names = 0;
+        }
+
+        /**
+         * @return The name held by the given bytes, decoded once per graph.
+         */
+        private String name(int start, int end){
+            int length = end - start;
+            int hash = 1;
+            for(int i = start; i < end; i++)
+                hash = 31 * hash + buffer.get(i);
+            hash ^= hash >>> 16;
+            int mask = slotName.length - 1;
+            int slot = hash & mask;
+            while(slotName[slot] != null){
+                if(slotLength[slot] == length && equalBytes(slotStart[slot], start, length))
+                    return slotName[slot];
+                slot = (slot + 1) & mask;
+            }
+            if(length > scratch.length)
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            buffer.get(start, scratch, 0, length);
+            String name = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            slotStart[slot] = start;
+            slotLength[slot] = length;
+            slotName[slot] = name;
+            if(++names * 2 > slotName.length)
+                grow();
+            return name;
+        }
+
+        private boolean equalBytes(int first, int second, int length){
+            for(int i = 0; i < length; i++)
+                if(buffer.get(first + i) != buffer.get(second + i))
+                    return false;
+            return true;
+        }
+
+        private void grow(){
+            int[] oldStart = slotStart;
+            int[] oldLength = slotLength;
+            String[] oldName = slotName;
+            slotStart = new int[oldName.length * 2];
+            slotLength = new int[oldName.length * 2];
+            slotName = new String[oldName.length * 2];
+            int mask = slotName.length - 1;
+            for(int i = 0; i < oldName.length; i++){
+                if(oldName[i] == null)
+                    continue;
+                int hash = 1;
+                for(int j = oldStart[i]; j < oldStart[i] + oldLength[i]; j++)
+                    hash = 31 * hash + buffer.get(j);
+                hash ^= hash >>> 16;
+                int slot = hash & mask;
+                while(slotName[slot] != null)
+                    slot = (slot + 1) & mask;
+                slotStart[slot] = oldStart[i];
+                slotLength[slot] = oldLength[i];
+                slotName[slot] = oldName[i];
+            }
+        }
+
+        private static boolean isSpace(byte b){
+            return b == ' ' || b == '\t' || b == '\r';
+        }
+
+        private static boolean isSeparator(byte b){
+            return b == ' ' || b == ',' || b == '\t' || b == '\r';
+        }
+    }
+}
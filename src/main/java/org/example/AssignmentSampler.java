@@ -0,0 +1,140 @@
+package org.example;
+
+import graph.IGraph;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Draws random perfect assignments of a graph.
+ * The first assignment is found by {@link HopcroftKarp} on a randomly shuffled graph. Every next assignment is
+ * reached by a number of random moves. A move walks an alternating path from a random giver, along random edges to
+ * the current givers of the recipients it reaches, until it reaches the recipient of the first giver. Then every
+ * giver on the cycle takes the recipient it walked to. Every move keeps the assignment perfect, and every perfect
+ * assignment can be reached, since any two perfect assignments differ by a set of alternating cycles.
+ * <p>
+ * The moves are symmetric, so the draws converge to the uniform distribution over all perfect assignments without a
+ * Metropolis-Hastings correction. A cycle through givers g1..gk is proposed with probability k / V times the product
+ * of 1 / degree(gi): any of its givers can start it, and each picks its next recipient among all of its edges. The
+ * move that undoes it walks the same cycle backwards, through the same givers, so it has the same probability and
+ * the acceptance ratio is always 1. Moves that fail leave the assignment as is, which does not affect uniformity.
+ */
+public final class AssignmentSampler
+{
+    private final String[] names;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int n;
+    private final SplittableRandom random;
+    private final int[] recipientOf;
+    private final int[] giverOf;
+    private final int[] path;
+    private final int[] choices;
+    private final int[] visited;
+    private int stamp;
+    private int movesPerDraw;
+
+    /**
+     * Creates a new sampler with a random seed.
+     */
+    public AssignmentSampler(IGraph<String> graph)
+    {
+        this(graph, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Creates a new sampler. Samplers with the same graph and seed draw the same assignments.
+     * @param graph The graph.
+     * @param seed The seed.
+     *
+     * @throws IllegalArgumentException If the graph has no perfect assignment.
+     */
+    public AssignmentSampler(IGraph<String> graph, long seed)
+    {
+        Objects.requireNonNull(graph, "Graph is null.");
+        Instance instance = Instance.of(graph, new String[graph.vertexCount()], false);
+        this.names = instance.names;
+        this.offsets = instance.offsets;
+        this.targets = instance.targets.clone();
+        this.n = instance.size();
+        this.random = new SplittableRandom(seed);
+        for(int u = 0; u < n; u++){
+            for(int edge = offsets[u + 1] - 1; edge > offsets[u]; edge--){
+                int other = offsets[u] + random.nextInt(edge - offsets[u] + 1);
+                int target = targets[edge];
+                targets[edge] = targets[other];
+                targets[other] = target;
+            }
+        }
+        HopcroftKarp engine = new HopcroftKarp(n, offsets, targets);
+        engine.warmStart();
+        if(engine.run() != n){
+            HallViolation violation = FeasibilityCheck.witness(names, engine);
+            throw new IllegalArgumentException("Graph has no perfect assignment: " + violation.explanation());
+        }
+        this.recipientOf = engine.pairU;
+        this.giverOf = engine.pairV;
+        this.path = new int[n];
+        this.choices = new int[n];
+        this.visited = new int[n];
+        this.movesPerDraw = Math.max(1, n);
+    }
+
+    /**
+     * Sets the amount of moves between two draws. More moves make consecutive draws less alike.
+     * @param movesPerDraw The amount of moves. Defaults to the amount of participants.
+     *
+     * @throws IllegalArgumentException If the amount is smaller than 1.
+     */
+    public void setMovesPerDraw(int movesPerDraw)
+    {
+        if(movesPerDraw < 1){
+            throw new IllegalArgumentException("Moves per draw is smaller than 1.");
+        }
+        this.movesPerDraw = movesPerDraw;
+    }
+
+    /**
+     * Makes the configured amount of moves, and returns the reached assignment.
+     */
+    public SecretSantaSolution next()
+    {
+        for(int i = 0; i < movesPerDraw; i++){
+            move();
+        }
+        return SecretSantaSolution.of(names, recipientOf.clone(), null);
+    }
+
+    /**
+     * Makes a single random move.
+     *
+     * @return True if the assignment changed. False otherwise.
+     */
+    private boolean move()
+    {
+        if(n == 0) return false;
+        int start = random.nextInt(n);
+        int closing = recipientOf[start];
+        stamp++;
+        visited[start] = stamp;
+        int giver = start;
+        for(int length = 0; length < n; length++){
+            int degree = offsets[giver + 1] - offsets[giver];
+            int recipient = targets[offsets[giver] + random.nextInt(degree)];
+            if(recipient == recipientOf[giver]) return false;
+            path[length] = giver;
+            choices[length] = recipient;
+            if(recipient == closing){
+                for(int i = 0; i <= length; i++){
+                    recipientOf[path[i]] = choices[i];
+                    giverOf[choices[i]] = path[i];
+                }
+                return true;
+            }
+            giver = giverOf[recipient];
+            if(visited[giver] == stamp) return false;
+            visited[giver] = stamp;
+        }
+        return false;
+    }
+}
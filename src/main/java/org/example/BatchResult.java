@@ -0,0 +1,31 @@
+package org.example;
+
+import java.util.List;
+
+/**
+ * Holds the solutions of a batch of graphs, in the order of the graphs, and the time it took to solve them.
+ * @param solutions The solution of every graph.
+ * @param nanos The wall clock time of the whole batch, in nanoseconds.
+ */
+public record BatchResult(List<SecretSantaSolution> solutions, long nanos)
+{
+    /**
+     * @return The amount of graphs that have no perfect matching.
+     */
+    public int unsolvedCount()
+    {
+        int unsolved = 0;
+        for(SecretSantaSolution solution : solutions){
+            if(!solution.isSolved()) unsolved++;
+        }
+        return unsolved;
+    }
+
+    /**
+     * @return The amount of graphs solved per second.
+     */
+    public double throughput()
+    {
+        return nanos == 0 ? 0 : solutions.size() / (nanos / 1e9);
+    }
+}
@@ -0,0 +1,16 @@
+package org.example;
+
+/**
+ * Holds the outcome of a search for an assignment that forms a single cycle through all participants.
+ * @param status Whether a cycle was found, proven impossible, or not found in time.
+ * @param solution The assignment if a cycle was found, or null otherwise.
+ */
+public record CycleResult(Status status, SecretSantaSolution solution)
+{
+    public enum Status { FOUND, IMPOSSIBLE, TIMED_OUT }
+
+    public boolean isFound()
+    {
+        return status == Status.FOUND;
+    }
+}
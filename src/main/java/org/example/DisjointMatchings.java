@@ -0,0 +1,192 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds k perfect matchings that share no edge, for draws that may not repeat a pair within k rounds.
+ * The union of k such matchings is a k-regular subgraph, in which every giver gifts k recipients and every recipient
+ * is gifted by k givers. Conversely, every k-regular bipartite graph splits into k perfect matchings (König).
+ * So the matchings exist if and only if a maximum flow from a source, with capacity k to every giver, over the edges
+ * with capacity 1, to a sink, with capacity k from every recipient, saturates the source. The flow is found with
+ * Dinic's algorithm, and the k-regular subgraph is then peeled one perfect matching at a time with {@link HopcroftKarp}.
+ */
+final class DisjointMatchings
+{
+    private final int n;
+    private final int source;
+    private final int sink;
+    private final int[] head;
+    private final int[] next;
+    private final int[] to;
+    private final int[] capacity;
+    private final int[] level;
+    private final int[] current;
+    private final int[] queue;
+    private final int[] pathNodes;
+    private final int[] pathEdges;
+    private int edgeCount;
+
+    private DisjointMatchings(Instance instance, int k)
+    {
+        this.n = instance.size();
+        this.source = 2 * n;
+        this.sink = 2 * n + 1;
+        int nodes = 2 * n + 2;
+        int edges = 2 * (instance.targets.length + 2 * n);
+        this.head = new int[nodes];
+        this.next = new int[edges];
+        this.to = new int[edges];
+        this.capacity = new int[edges];
+        this.level = new int[nodes];
+        this.current = new int[nodes];
+        this.queue = new int[nodes];
+        this.pathNodes = new int[nodes + 1];
+        this.pathEdges = new int[nodes];
+        Arrays.fill(head, -1);
+        // The edges of giver u to its recipients come first, in the order of the instance, so edge e is at 2 * e.
+        for(int u = 0; u < n; u++){
+            for(int edge = instance.offsets[u]; edge < instance.offsets[u + 1]; edge++){
+                addEdge(u, n + instance.targets[edge], 1);
+            }
+        }
+        for(int u = 0; u < n; u++){
+            addEdge(source, u, k);
+            addEdge(n + u, sink, k);
+        }
+    }
+
+    /**
+     * Finds k perfect matchings of the given instance that share no edge.
+     *
+     * @return The recipients of every giver, per matching, or an empty list if there are no such matchings.
+     */
+    static List<int[]> find(Instance instance, int k)
+    {
+        int n = instance.size();
+        int[] inDegrees = new int[n];
+        for(int target : instance.targets){
+            inDegrees[target]++;
+        }
+        for(int u = 0; u < n; u++){
+            if(instance.offsets[u + 1] - instance.offsets[u] < k || inDegrees[u] < k) return List.of();
+        }
+        DisjointMatchings flow = new DisjointMatchings(instance, k);
+        if(flow.maxFlow() != (long) n * k) return List.of();
+        int[] targets = new int[n * k];
+        int cursor = 0;
+        for(int edge = 0; edge < instance.targets.length; edge++){
+            if(flow.capacity[2 * edge] == 0) targets[cursor++] = instance.targets[edge];
+        }
+        List<int[]> matchings = new ArrayList<>(k);
+        for(int degree = k; degree > 0; degree--){
+            int[] offsets = new int[n + 1];
+            for(int u = 0; u <= n; u++){
+                offsets[u] = u * degree;
+            }
+            HopcroftKarp engine = new HopcroftKarp(n, offsets, targets);
+            engine.warmStart();
+            if(engine.run() != n){
+                throw new IllegalStateException("Regular subgraph has no perfect matching.");
+            }
+            matchings.add(engine.pairU);
+            int[] remaining = new int[n * (degree - 1)];
+            cursor = 0;
+            for(int u = 0; u < n; u++){
+                for(int edge = offsets[u]; edge < offsets[u + 1]; edge++){
+                    if(targets[edge] != engine.pairU[u]) remaining[cursor++] = targets[edge];
+                }
+            }
+            targets = remaining;
+        }
+        return matchings;
+    }
+
+    private void addEdge(int start, int end, int cap)
+    {
+        to[edgeCount] = end;
+        capacity[edgeCount] = cap;
+        next[edgeCount] = head[start];
+        head[start] = edgeCount++;
+        to[edgeCount] = start;
+        capacity[edgeCount] = 0;
+        next[edgeCount] = head[end];
+        head[end] = edgeCount++;
+    }
+
+    private long maxFlow()
+    {
+        long flow = 0;
+        while(buildLevels()){
+            System.arraycopy(head, 0, current, 0, head.length);
+            while(augment()){
+                flow++;
+            }
+        }
+        return flow;
+    }
+
+    /**
+     * Layers the nodes by their distance from the source in the residual graph.
+     *
+     * @return True if the sink was reached. False otherwise.
+     */
+    private boolean buildLevels()
+    {
+        Arrays.fill(level, -1);
+        int headIndex = 0;
+        int tail = 0;
+        level[source] = 0;
+        queue[tail++] = source;
+        while(headIndex < tail){
+            int node = queue[headIndex++];
+            for(int edge = head[node]; edge != -1; edge = next[edge]){
+                if(capacity[edge] > 0 && level[to[edge]] == -1){
+                    level[to[edge]] = level[node] + 1;
+                    queue[tail++] = to[edge];
+                }
+            }
+        }
+        return level[sink] != -1;
+    }
+
+    /**
+     * Pushes one unit of flow along a shortest path from the source to the sink. Every path carries exactly one unit,
+     * since the edges between givers and recipients have capacity 1. Iterative, so long paths cannot overflow the call
+     * stack.
+     *
+     * @return True if a path was found. False otherwise.
+     */
+    private boolean augment()
+    {
+        int depth = 0;
+        pathNodes[0] = source;
+        while(true){
+            int node = pathNodes[depth];
+            if(node == sink){
+                for(int i = 0; i < depth; i++){
+                    capacity[pathEdges[i]]--;
+                    capacity[pathEdges[i] ^ 1]++;
+                }
+                return true;
+            }
+            boolean advanced = false;
+            for(; current[node] != -1; current[node] = next[current[node]]){
+                int edge = current[node];
+                if(capacity[edge] > 0 && level[to[edge]] == level[node] + 1){
+                    pathEdges[depth] = edge;
+                    pathNodes[++depth] = to[edge];
+                    advanced = true;
+                    break;
+                }
+            }
+            if(!advanced){
+                level[node] = -1;
+                if(depth == 0) return false;
+                depth--;
+                current[pathNodes[depth]] = next[current[pathNodes[depth]]];
+            }
+        }
+    }
+}
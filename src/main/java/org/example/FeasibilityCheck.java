@@ -0,0 +1,113 @@
+package org.example;
+
+import graph.IGraph;
+
+import java.util.*;
+
+/**
+ * Finds proofs that a graph has no perfect matching.
+ * {@link #precheck(IGraph)} looks for the violations that are common in practice, in O(V + E), without matching.
+ * {@link #witness(String[], HopcroftKarp)} derives a violation from any maximum matching that is not perfect.
+ */
+final class FeasibilityCheck
+{
+    /**
+     * The largest degree for which participants with identical options are grouped.
+     */
+    static final int SMALL_DEGREE = 4;
+
+    private FeasibilityCheck()
+    {
+
+    }
+
+    /**
+     * Looks for participants that cannot give or receive a gift at all, and for groups of more than d participants
+     * that share the same d options, with d at most {@link #SMALL_DEGREE}, on both sides.
+     *
+     * @return The first violation found, or null if none was found. In the latter case, the graph can still have no
+     *         perfect matching.
+     */
+    static HallViolation precheck(IGraph<String> graph)
+    {
+        Map<String, Integer> inDegrees = HashMap.newHashMap(graph.vertexCount());
+        Map<List<String>, Set<String>> giverGroups = new HashMap<>();
+        HallViolation[] violation = new HallViolation[1];
+        graph.forEachVertex(vertex -> {
+            inDegrees.putIfAbsent(vertex, 0);
+            graph.forEachSuccessor(vertex, s -> inDegrees.merge(s, 1, Integer::sum));
+            if(violation[0] == null && graph.getDegree(vertex) <= SMALL_DEGREE){
+                violation[0] = group(giverGroups, graph.getSuccessors(vertex), vertex, HallViolation.Side.GIVERS);
+            }
+        });
+        if(violation[0] != null) return violation[0];
+        Map<String, List<String>> predecessors = new HashMap<>();
+        for(Map.Entry<String, Integer> entry : inDegrees.entrySet()){
+            if(entry.getValue() == 0){
+                return new HallViolation(HallViolation.Side.RECIPIENTS, Set.of(entry.getKey()), Set.of());
+            }
+            if(entry.getValue() <= SMALL_DEGREE){
+                predecessors.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+            }
+        }
+        graph.forEachVertex(vertex -> graph.forEachSuccessor(vertex, s -> {
+            List<String> list = predecessors.get(s);
+            if(list != null) list.add(vertex);
+        }));
+        Map<List<String>, Set<String>> recipientGroups = new HashMap<>();
+        for(Map.Entry<String, List<String>> entry : predecessors.entrySet()){
+            HallViolation found = group(recipientGroups, entry.getValue(), entry.getKey(), HallViolation.Side.RECIPIENTS);
+            if(found != null) return found;
+        }
+        return null;
+    }
+
+    /**
+     * Adds the given participant to the group of participants with the same options.
+     *
+     * @return A violation if the group now outnumbers its options. Null otherwise.
+     */
+    private static HallViolation group(Map<List<String>, Set<String>> groups, List<String> options,
+                                       String participant, HallViolation.Side side)
+    {
+        List<String> key = new ArrayList<>(options);
+        Collections.sort(key);
+        Set<String> group = groups.computeIfAbsent(key, k -> new LinkedHashSet<>());
+        group.add(participant);
+        if(group.size() <= key.size()) return null;
+        return new HallViolation(side, Set.copyOf(group), Set.copyOf(key));
+    }
+
+    /**
+     * Derives a violation from the given maximum matching, in O(V + E). The givers reachable over alternating paths
+     * from an unmatched giver can only gift the reachable recipients, which are all matched to reachable givers,
+     * so the givers outnumber them by the amount of unmatched givers (König).
+     * @param names The name of each participant, by id.
+     * @param engine The engine, holding a maximum matching.
+     *
+     * @return The violation, or null if the matching is perfect.
+     */
+    static HallViolation witness(String[] names, HopcroftKarp engine)
+    {
+        int n = engine.size();
+        boolean perfect = true;
+        for(int u = 0; u < n; u++){
+            if(engine.pairU[u] == HopcroftKarp.NONE){
+                perfect = false;
+                break;
+            }
+        }
+        if(perfect) return null;
+        boolean[] givers = new boolean[n];
+        boolean[] recipients = new boolean[n];
+        engine.markAlternating(givers, recipients);
+        Set<String> participants = new LinkedHashSet<>();
+        Set<String> options = new LinkedHashSet<>();
+        for(int i = 0; i < n; i++){
+            if(givers[i]) participants.add(names[i]);
+            if(recipients[i]) options.add(names[i]);
+        }
+        return new HallViolation(HallViolation.Side.GIVERS, Collections.unmodifiableSet(participants),
+                Collections.unmodifiableSet(options));
+    }
+}
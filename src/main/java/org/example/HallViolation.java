@@ -0,0 +1,30 @@
+package org.example;
+
+import java.util.Set;
+
+/**
+ * Represents a proof that a graph has no perfect matching: a set of participants that compete for fewer options.
+ * By Hall's theorem, every graph without a perfect matching has such a set.
+ * @param side Whether the participants are givers, and the options the recipients they can gift, or vice versa.
+ * @param participants The competing participants.
+ * @param options Every participant that any of the competing participants can be paired with. Smaller than the
+ *                set of competing participants.
+ */
+public record HallViolation(Side side, Set<String> participants, Set<String> options)
+{
+    public enum Side { GIVERS, RECIPIENTS }
+
+    /**
+     * @return A readable explanation of the violation.
+     */
+    public String explanation()
+    {
+        String verb = side == Side.GIVERS ? "can only gift" : "can only be gifted by";
+        if(options.isEmpty()){
+            verb = side == Side.GIVERS ? "can gift nobody" : "can be gifted by nobody";
+            return String.join(", ", participants) + " " + verb + ".";
+        }
+        return String.format("%d participants (%s) %s %d participants (%s).", participants.size(),
+                String.join(", ", participants), verb, options.size(), String.join(", ", options));
+    }
+}
@@ -0,0 +1,303 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Runs Hopcroft-Karp's algorithm on a bipartite graph of dense int ids, in O(E * sqrt(V)).
+ * Both sides of the graph hold the same n participants: giver u in U may be matched to recipient v in V if there is
+ * an edge u -> v. The edges are given in compressed sparse row form: the recipients of giver u are
+ * targets[offsets[u]] up to targets[offsets[u + 1]].
+ * <p>
+ * Every phase runs one breadth-first search from all unmatched givers, which layers the givers by the length of their
+ * shortest alternating path from an unmatched giver, and stops at the first layer that reaches an unmatched recipient.
+ * Then a depth-first search from every unmatched giver only follows edges to the next layer, which finds a maximal set
+ * of vertex-disjoint shortest augmenting paths. Each vertex is expanded at most once per phase.
+ */
+final class HopcroftKarp {
+
+    static final int NONE = -1;
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private int n;
+    private int[] offsets;
+    private int[] targets;
+    /**
+     * The recipient matched to each giver, or NONE. Only the first n entries are in use.
+     */
+    int[] pairU = new int[0];
+    /**
+     * The giver matched to each recipient, or NONE. Only the first n entries are in use.
+     */
+    int[] pairV = new int[0];
+    private int[] dist = new int[0];
+    private int[] queue = new int[0];
+    private int[] next = new int[0];
+    private int[] stack = new int[0];
+    private int[] sourceOffsets = new int[0];
+    private int[] sources = new int[0];
+    private int[] degreeV = new int[0];
+    private int[] pending = new int[0];
+
+    /**
+     * Creates a new engine without a graph. See {@link #reset(int, int[], int[])}.
+     */
+    HopcroftKarp(){
+
+    }
+
+    /**
+     * Creates a new engine with an empty matching.
+     * @param n The amount of participants.
+     * @param offsets The edge offsets, of length n + 1.
+     * @param targets The recipient of each edge.
+     */
+    HopcroftKarp(int n, int[] offsets, int[] targets){
+        reset(n, offsets, targets);
+    }
+
+    /**
+     * Loads the given graph with an empty matching. The scratch arrays only grow, so an engine that is reused for
+     * graphs of similar size stops allocating.
+     * @param n The amount of participants.
+     * @param offsets The edge offsets, of at least length n + 1.
+     * @param targets The recipient of each edge.
+     */
+    void reset(int n, int[] offsets, int[] targets){
+        this.n = n;
+        this.offsets = offsets;
+        this.targets = targets;
+        if(pairU.length < n){
+            int capacity = Math.max(n, pairU.length * 2);
+            pairU = new int[capacity];
+            pairV = new int[capacity];
+            dist = new int[capacity];
+            queue = new int[capacity];
+            next = new int[capacity];
+            stack = new int[capacity];
+        }
+        Arrays.fill(pairU, 0, n, NONE);
+        Arrays.fill(pairV, 0, n, NONE);
+    }
+
+    /**
+     * @return The amount of participants.
+     */
+    int size(){
+        return n;
+    }
+
+    /**
+     * Finds a maximal matching greedily, in O(V + E), to warm start {@link #run()} (Karp-Sipser).
+     * Whenever a giver or recipient has a single unmatched option left, it is matched to it, since some maximum
+     * matching does so. If there is no such vertex, the first unmatched giver is matched to its first unmatched option.
+     * Must be called on an empty matching.
+     *
+     * @return The size of the matching.
+     */
+    int warmStart(){
+        if(sourceOffsets.length < n + 1){
+            sourceOffsets = new int[Math.max(n + 1, sourceOffsets.length * 2)];
+            degreeV = new int[sourceOffsets.length];
+            pending = new int[2 * sourceOffsets.length];
+        }
+        if(sources.length < offsets[n])
+            sources = new int[Math.max(offsets[n], sources.length * 2)];
+        Arrays.fill(sourceOffsets, 0, n + 1, 0);
+        Arrays.fill(degreeV, 0, n, 0);
+        for(int edge = 0; edge < offsets[n]; edge++)
+            sourceOffsets[targets[edge] + 1]++;
+        for(int v = 0; v < n; v++)
+            sourceOffsets[v + 1] += sourceOffsets[v];
+        // Fills the sources of every recipient using its degree as a cursor, which is reset below.
+        for(int u = 0; u < n; u++)
+            for(int edge = offsets[u]; edge < offsets[u + 1]; edge++)
+                sources[sourceOffsets[targets[edge]] + degreeV[targets[edge]]++] = u;
+        // The amount of unmatched options of every giver, and of every recipient.
+        int[] degreeU = dist;
+        // Holds givers as u, and recipients as n + v. Every vertex is pushed at most twice.
+        int top = 0;
+        for(int u = 0; u < n; u++){
+            degreeU[u] = offsets[u + 1] - offsets[u];
+            degreeV[u] = sourceOffsets[u + 1] - sourceOffsets[u];
+            if(degreeU[u] == 1)
+                pending[top++] = u;
+            if(degreeV[u] == 1)
+                pending[top++] = n + u;
+        }
+        int size = 0;
+        int cursor = 0;
+        while(true){
+            int u;
+            int v;
+            if(top > 0){
+                int vertex = pending[--top];
+                if(vertex < n){
+                    u = vertex;
+                    if(pairU[u] != NONE || degreeU[u] == 0)
+                        continue;
+                    v = firstUnmatched(offsets, targets, pairV, u);
+                }else{
+                    v = vertex - n;
+                    if(pairV[v] != NONE || degreeV[v] == 0)
+                        continue;
+                    u = firstUnmatched(sourceOffsets, sources, pairU, v);
+                }
+            }else{
+                while(cursor < n && (pairU[cursor] != NONE || degreeU[cursor] == 0))
+                    cursor++;
+                if(cursor == n)
+                    return size;
+                u = cursor;
+                v = firstUnmatched(offsets, targets, pairV, u);
+            }
+            pairU[u] = v;
+            pairV[v] = u;
+            size++;
+            for(int edge = offsets[u]; edge < offsets[u + 1]; edge++){
+                int x = targets[edge];
+                if(pairV[x] == NONE && --degreeV[x] == 1)
+                    pending[top++] = n + x;
+            }
+            for(int edge = sourceOffsets[v]; edge < sourceOffsets[v + 1]; edge++){
+                int y = sources[edge];
+                if(pairU[y] == NONE && --degreeU[y] == 1)
+                    pending[top++] = y;
+            }
+        }
+    }
+
+    /**
+     * @return The first neighbour of the given vertex that is unmatched on the other side.
+     */
+    private static int firstUnmatched(int[] offsets, int[] neighbours, int[] pair, int vertex){
+        for(int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++)
+            if(pair[neighbours[edge]] == NONE)
+                return neighbours[edge];
+        throw new IllegalStateException("No unmatched neighbour.");
+    }
+
+    /**
+     * Grows the current matching into a maximum matching.
+     *
+     * @return The size of the matching.
+     */
+    int run(){
+        int size = 0;
+        for(int u = 0; u < n; u++)
+            if(pairU[u] != NONE)
+                size++;
+        while(size < n && bfs()){
+            for(int u = 0; u < n; u++)
+                if(pairU[u] == NONE && dfs(u))
+                    size++;
+        }
+        return size;
+    }
+
+    /**
+     * Marks every giver and recipient that is reachable over an alternating path from an unmatched giver.
+     * @param givers Is set to true for every reached giver.
+     * @param recipients Is set to true for every reached recipient.
+     */
+    void markAlternating(boolean[] givers, boolean[] recipients){
+        int head = 0;
+        int tail = 0;
+        for(int u = 0; u < n; u++){
+            if(pairU[u] == NONE){
+                givers[u] = true;
+                queue[tail++] = u;
+            }
+        }
+        while(head < tail){
+            int u = queue[head++];
+            for(int edge = offsets[u]; edge < offsets[u + 1]; edge++){
+                int v = targets[edge];
+                if(recipients[v])
+                    continue;
+                recipients[v] = true;
+                int w = pairV[v];
+                if(w != NONE && !givers[w]){
+                    givers[w] = true;
+                    queue[tail++] = w;
+                }
+            }
+        }
+    }
+
+    /**
+     * Layers the givers by the length of their shortest alternating path from an unmatched giver.
+     *
+     * @return True if an unmatched recipient was reached. False otherwise.
+     */
+    private boolean bfs(){
+        int head = 0;
+        int tail = 0;
+        for(int u = 0; u < n; u++){
+            if(pairU[u] == NONE){
+                dist[u] = 0;
+                queue[tail++] = u;
+            }else{
+                dist[u] = INFINITY;
+            }
+        }
+        int limit = INFINITY;
+        while(head < tail){
+            int u = queue[head++];
+            if(dist[u] >= limit)
+                continue;
+            for(int edge = offsets[u]; edge < offsets[u + 1]; edge++){
+                int w = pairV[targets[edge]];
+                if(w == NONE){
+                    limit = dist[u] + 1;
+                }else if(dist[w] == INFINITY){
+                    dist[w] = dist[u] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return limit != INFINITY;
+    }
+
+    /**
+     * Searches for a shortest augmenting path from the given unmatched giver along the layers of the last
+     * breadth-first search, and flips it if found. Iterative, so long paths cannot overflow the call stack.
+     *
+     * @return True if the matching was augmented. False otherwise.
+     */
+    private boolean dfs(int root){
+        int depth = 0;
+        stack[0] = root;
+        next[root] = offsets[root];
+        while(depth >= 0){
+            int u = stack[depth];
+            boolean advanced = false;
+            while(next[u] < offsets[u + 1]){
+                int v = targets[next[u]];
+                int w = pairV[v];
+                if(w == NONE){
+                    for(int i = depth; i >= 0; i--){
+                        int giver = stack[i];
+                        int recipient = targets[next[giver]];
+                        pairU[giver] = recipient;
+                        pairV[recipient] = giver;
+                    }
+                    return true;
+                }
+                if(dist[w] == dist[u] + 1){
+                    next[w] = offsets[w];
+                    stack[++depth] = w;
+                    advanced = true;
+                    break;
+                }
+                next[u]++;
+            }
+            if(!advanced){
+                dist[u] = INFINITY;
+                depth--;
+                if(depth >= 0)
+                    next[stack[depth]]++;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,183 @@
+package org.example;
+
+import graph.IGraph;
+
+import java.util.*;
+
+/**
+ * Holds a maximum matching of a graph, and keeps it maximum while the graph is edited.
+ * An edit changes the size of a maximum matching by at most one per matched pair it breaks, so instead of solving
+ * again, the matching is repaired with at most one augmenting-path search per edge edit, and at most two per vertex
+ * removal. Every search is a breadth-first search from all unmatched givers, which stops as soon as it reaches an
+ * unmatched recipient.
+ * <p>
+ * The graph must only be edited through this matcher, or the matching goes stale.
+ */
+public final class IncrementalMatcher
+{
+    private final IGraph<String> graph;
+    private final Map<String, String> recipientOf;
+    private final Map<String, String> giverOf;
+    private final Set<String> freeGivers;
+
+    /**
+     * Creates a new matcher, and finds a maximum matching of the given graph.
+     * @param graph The graph. Is changed by the edits made through this matcher.
+     */
+    public IncrementalMatcher(IGraph<String> graph)
+    {
+        this.graph = Objects.requireNonNull(graph, "Graph is null.");
+        int n = graph.vertexCount();
+        this.recipientOf = HashMap.newHashMap(n);
+        this.giverOf = HashMap.newHashMap(n);
+        this.freeGivers = new LinkedHashSet<>();
+        String[] names = new String[n];
+        HopcroftKarp engine = SecretSantaSelector.match(graph, names, true);
+        for(int u = 0; u < n; u++){
+            int v = engine.pairU[u];
+            if(v == HopcroftKarp.NONE){
+                freeGivers.add(names[u]);
+            }else{
+                recipientOf.put(names[u], names[v]);
+                giverOf.put(names[v], names[u]);
+            }
+        }
+    }
+
+    /**
+     * Adds a participant without any allowed recipients. The matching remains maximum.
+     */
+    public void addVertex(String vertex)
+    {
+        graph.addVertex(vertex);
+        freeGivers.add(vertex);
+    }
+
+    /**
+     * Removes a participant, and repairs the matching with at most two searches.
+     */
+    public void removeVertex(String vertex)
+    {
+        graph.removeVertex(vertex);
+        freeGivers.remove(vertex);
+        String recipient = recipientOf.remove(vertex);
+        if(recipient != null){
+            giverOf.remove(recipient);
+        }
+        String giver = giverOf.remove(vertex);
+        if(giver != null){
+            recipientOf.remove(giver);
+            freeGivers.add(giver);
+        }
+        if(augment()){
+            augment();
+        }
+    }
+
+    /**
+     * Allows the given giver to gift the given recipient, and repairs the matching with at most one search.
+     */
+    public void addEdge(String start, String end)
+    {
+        addEdge(start, end, 0);
+    }
+
+    /**
+     * Allows the given giver to gift the given recipient, and repairs the matching with at most one search.
+     */
+    public void addEdge(String start, String end, int weight)
+    {
+        graph.addEdge(start, end, weight);
+        if(!recipientOf.containsKey(start) && !giverOf.containsKey(end)){
+            link(start, end);
+            freeGivers.remove(start);
+        }else if(!freeGivers.isEmpty()){
+            augment();
+        }
+    }
+
+    /**
+     * Forbids the given giver to gift the given recipient, and repairs the matching with at most one search.
+     */
+    public void removeEdge(String start, String end)
+    {
+        graph.removeEdge(start, end);
+        if(end.equals(recipientOf.get(start))){
+            recipientOf.remove(start);
+            giverOf.remove(end);
+            freeGivers.add(start);
+            augment();
+        }
+    }
+
+    /**
+     * @return The recipient of the given giver, or null if the giver is unmatched.
+     */
+    public String getRecipient(String giver)
+    {
+        return recipientOf.get(giver);
+    }
+
+    /**
+     * @return The amount of matched givers.
+     */
+    public int size()
+    {
+        return recipientOf.size();
+    }
+
+    public boolean isSolved()
+    {
+        return freeGivers.isEmpty();
+    }
+
+    public SecretSantaSolution getSolution()
+    {
+        return SecretSantaSolution.of(graph.getVertices(), recipientOf);
+    }
+
+    private void link(String giver, String recipient)
+    {
+        recipientOf.put(giver, recipient);
+        giverOf.put(recipient, giver);
+    }
+
+    /**
+     * Runs breadth-first search over alternating paths from all unmatched givers, and flips the first augmenting
+     * path found.
+     *
+     * @return True if the matching was augmented. False otherwise.
+     */
+    private boolean augment()
+    {
+        if(freeGivers.isEmpty()) return false;
+        Map<String, String> reachedBy = new HashMap<>();
+        Set<String> visited = new HashSet<>(freeGivers);
+        ArrayDeque<String> queue = new ArrayDeque<>(freeGivers);
+        String[] end = new String[1];
+        while(!queue.isEmpty() && end[0] == null){
+            String u = queue.poll();
+            graph.forEachSuccessor(u, v -> {
+                if(end[0] != null || reachedBy.putIfAbsent(v, u) != null) return;
+                String w = giverOf.get(v);
+                if(w == null){
+                    end[0] = v;
+                }else if(visited.add(w)){
+                    queue.add(w);
+                }
+            });
+        }
+        if(end[0] == null) return false;
+        String recipient = end[0];
+        while(true){
+            String giver = reachedBy.get(recipient);
+            String previous = recipientOf.get(giver);
+            link(giver, recipient);
+            if(previous == null){
+                freeGivers.remove(giver);
+                return true;
+            }
+            recipient = previous;
+        }
+    }
+}
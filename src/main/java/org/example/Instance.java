@@ -0,0 +1,93 @@
+package org.example;
+
+import graph.IGraph;
+import graph.IIndexedGraph;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents a graph on dense int ids, in compressed sparse row form: the recipients of giver u are
+ * targets[offsets[u]] up to targets[offsets[u + 1]], with the matching weights if the weights were read.
+ */
+final class Instance
+{
+    final String[] names;
+    final int[] offsets;
+    final int[] targets;
+    final int[] weights;
+
+    private Instance(String[] names, int[] offsets, int[] targets, int[] weights)
+    {
+        this.names = names;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    int size()
+    {
+        return names.length;
+    }
+
+    /**
+     * Converts the given graph. Reuses the indices of an {@link IIndexedGraph}.
+     * @param graph The graph.
+     * @param names Is filled with the name of each participant, by id. Must be of length graph.vertexCount().
+     * @param weighted Whether to read the weights. If not, the weights are null.
+     */
+    static Instance of(IGraph<String> graph, String[] names, boolean weighted)
+    {
+        if(graph instanceof IIndexedGraph<String> indexed){
+            return of(indexed, names, weighted);
+        }
+        int n = graph.vertexCount();
+        Map<String, Integer> ids = HashMap.newHashMap(n);
+        graph.forEachVertex(vertex -> {
+            names[ids.size()] = vertex;
+            ids.put(vertex, ids.size());
+        });
+        int[] offsets = new int[n + 1];
+        for(int u = 0; u < n; u++){
+            offsets[u + 1] = offsets[u] + graph.getDegree(names[u]);
+        }
+        int[] targets = new int[offsets[n]];
+        int[] weights = weighted ? new int[offsets[n]] : null;
+        int[] cursor = new int[1];
+        for(int u = 0; u < n; u++){
+            if(weighted){
+                graph.forEachEdge(names[u], (s, weight) -> {
+                    weights[cursor[0]] = weight;
+                    targets[cursor[0]++] = ids.get(s);
+                });
+            }else{
+                graph.forEachSuccessor(names[u], s -> targets[cursor[0]++] = ids.get(s));
+            }
+        }
+        return new Instance(names, offsets, targets, weights);
+    }
+
+    private static Instance of(IIndexedGraph<String> graph, String[] names, boolean weighted)
+    {
+        int n = graph.vertexCount();
+        int[] offsets = new int[n + 1];
+        for(int u = 0; u < n; u++){
+            names[u] = graph.objectAt(u);
+            offsets[u + 1] = offsets[u] + graph.degreeAt(u);
+        }
+        int[] targets = new int[offsets[n]];
+        int[] weights = weighted ? new int[offsets[n]] : null;
+        int[] cursor = new int[1];
+        for(int u = 0; u < n; u++){
+            if(weighted){
+                graph.forEachEdgeIndex(u, (v, weight) -> {
+                    weights[cursor[0]] = weight;
+                    targets[cursor[0]++] = v;
+                });
+            }else{
+                graph.forEachSuccessorIndex(u, v -> targets[cursor[0]++] = v);
+            }
+        }
+        return new Instance(names, offsets, targets, weights);
+    }
+}
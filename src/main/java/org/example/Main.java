@@ -1,38 +1,79 @@
 package org.example;
 
+import graph.ConcurrentGraph;
+import graph.CsrGraph;
 import graph.Graph;
+import graph.GraphBuilder;
 import graph.IGraph;
+import graph_io.GraphReader;
+import graph_io.MappedGraphLoader;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
 
 public class Main {
+    private static final String DEFAULT_FILE = "src/test/java/configurations.csv";
+
     public static void main(String[] args)
     {
         //GraphGenerator.generateAndWrite(1_000, "large");
-        runSingleTest();
+        runSingleTest(args.length > 0 ? args[0] : DEFAULT_FILE);
     }
 
-    public static void runSingleTest()
+    /**
+     * Solves the graphs in the given file one at a time, while they are read, so files of any size are solved at
+     * constant memory.
+     */
+    public static void runSingleTest(String filePath)
     {
         SecretSantaSelector selector = new SecretSantaSelector();
         int total = 0;
         int impossible = 0;
-        List<IGraph<String>> graphs = loadGraphs();
         long start = System.currentTimeMillis();
-        for (IGraph<String> graph : graphs) {
-            total++;
-            if(!selector.findMaximumMatching(graph).isSolved()){
-                impossible++;
+        try(GraphReader reader = new GraphReader(Path.of(filePath))){
+            for(IGraph<String> graph : reader){
+                total++;
+                if(!selector.findMaximumMatching(graph).isSolved()){
+                    impossible++;
+                }
             }
+        }catch(IOException | UncheckedIOException e){
+            e.printStackTrace();
         }
         System.out.printf("Total runtime: %d\n", System.currentTimeMillis() - start);
         System.out.printf("Unsolvable graphs: %d\n", impossible);
         System.out.printf("Total amount of graphs: %d\n", total);
     }
 
+    /**
+     * Solves the graphs in the given file one at a time, and streams their solutions to the given file in the line
+     * format of {@link SolutionWriter}.
+     */
+    public static void runSolutionDump(String filePath, String solutionPath)
+    {
+        SecretSantaSelector selector = new SecretSantaSelector();
+        int total = 0;
+        long start = System.currentTimeMillis();
+        try(GraphReader reader = new GraphReader(Path.of(filePath));
+            SolutionWriter writer = new SolutionWriter(Path.of(solutionPath))){
+            for(IGraph<String> graph : reader){
+                writer.write(selector.solve(graph));
+                total++;
+            }
+        }catch(IOException | UncheckedIOException e){
+            e.printStackTrace();
+        }
+        System.out.printf("Total runtime: %d\n", System.currentTimeMillis() - start);
+        System.out.printf("Solutions written: %d\n", total);
+    }
+
     public static void runIterTest()
     {
         long total = 0;
@@ -50,7 +91,7 @@ public class Main {
     {
         SecretSantaSelector selector = new SecretSantaSelector();
         long total = 0;
-        List<IGraph<String>> graphs = loadGraphs();
+        List<IGraph<String>> graphs = loadGraphs(DEFAULT_FILE);
         for(int i = 0; i < iter; i++){
             long start = System.currentTimeMillis();
             for(IGraph<String> graph : graphs){
@@ -61,42 +102,381 @@ public class Main {
         return total;
     }
 
-    private static List<IGraph<String>> loadGraphs()
+    /**
+     * Compares the throughput of {@link SecretSantaSelector#solve(IGraph)} on the graphs in the given file, as loaded
+     * and frozen into a {@link CsrGraph}.
+     */
+    public static void runEngineBenchmark(String filePath)
     {
-        List<IGraph<String>> graphs = new ArrayList<>();
-        // System.out.println(System.getProperty("user.dir"));
+        SecretSantaSelector selector = new SecretSantaSelector();
+        List<IGraph<String>> graphs = loadGraphs(filePath);
+        List<IGraph<String>> frozen = graphs.stream().map(CsrGraph::of).map(graph -> (IGraph<String>) graph).toList();
+        long mutable = Long.MAX_VALUE;
+        long csr = Long.MAX_VALUE;
+        for(int iter = 0; iter < 10; iter++){
+            long start = System.nanoTime();
+            for(IGraph<String> graph : graphs){
+                selector.solve(graph);
+            }
+            mutable = Math.min(mutable, System.nanoTime() - start);
+            start = System.nanoTime();
+            for(IGraph<String> graph : frozen){
+                selector.solve(graph);
+            }
+            csr = Math.min(csr, System.nanoTime() - start);
+        }
+        System.out.printf("Graph: %.0f graphs/s\n", graphs.size() / (mutable / 1e9));
+        System.out.printf("CsrGraph: %.0f graphs/s\n", graphs.size() / (csr / 1e9));
+    }
 
-        String filePath = "D:/secret santa/untitled/src/test/java/large.csv";
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            br.mark(1);
-            if (br.read() != '\uFEFF') {
-                br.reset(); // No BOM, reset the stream
+    /**
+     * Measures the bytes allocated per solve on the graphs in the given file, once the workspace of the thread is
+     * warm. {@link SecretSantaSelector#isSolvable(IGraph)} on a {@link CsrGraph} should allocate close to nothing,
+     * and {@link SecretSantaSelector#solve(IGraph)} only its solution.
+     */
+    public static void runAllocationBenchmark(String filePath)
+    {
+        if(!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)){
+            System.out.println("Allocation counters are not supported by this JVM.");
+            return;
+        }
+        SecretSantaSelector selector = new SecretSantaSelector();
+        List<IGraph<String>> graphs = loadGraphs(filePath);
+        List<IGraph<String>> frozen = graphs.stream().map(CsrGraph::of).map(graph -> (IGraph<String>) graph).toList();
+        long thread = Thread.currentThread().threadId();
+        for(int iter = 0; iter < 5; iter++){
+            long before = threads.getThreadAllocatedBytes(thread);
+            for(IGraph<String> graph : frozen){
+                selector.isSolvable(graph);
+            }
+            long solvable = threads.getThreadAllocatedBytes(thread) - before;
+            before = threads.getThreadAllocatedBytes(thread);
+            for(IGraph<String> graph : frozen){
+                selector.solve(graph);
             }
-            String line;
-            IGraph<String> graph = new Graph<>();
-            Map<String, List<String>> info = new HashMap<>();
-            while ((line = br.readLine()) != null) {
+            long solved = threads.getThreadAllocatedBytes(thread) - before;
+            before = threads.getThreadAllocatedBytes(thread);
+            for(IGraph<String> graph : graphs){
+                selector.solve(graph);
+            }
+            long mutable = threads.getThreadAllocatedBytes(thread) - before;
+            System.out.printf("Bytes per solve: isSolvable on CsrGraph %.1f, solve on CsrGraph %.1f, solve on Graph %.1f\n",
+                    (double) solvable / frozen.size(), (double) solved / frozen.size(), (double) mutable / graphs.size());
+        }
+    }
 
-                if(line.isEmpty() || line.equals("endoffile,")){
-                    graph.addVertices(new ArrayList<>(info.keySet()));
-                    for(String key : info.keySet()){
-                        graph.addEdges(key, info.get(key));
-                    }
-                    graphs.add(graph);
-                    info = new HashMap<>();
-                    graph = new Graph<>();
-                    if(line.equals("endoffile,")){
-                        return graphs;
+    /**
+     * Solves the graphs in the given file with {@link SecretSantaSelector#solveAll(List, int)}, from a single thread
+     * up to one thread per core.
+     */
+    public static void runBatchBenchmark(String filePath)
+    {
+        SecretSantaSelector selector = new SecretSantaSelector();
+        List<IGraph<String>> graphs = loadGraphs(filePath);
+        int cores = Runtime.getRuntime().availableProcessors();
+        for(int parallelism = 1; ; parallelism = Math.min(parallelism * 2, cores)){
+            BatchResult best = null;
+            for(int iter = 0; iter < 5; iter++){
+                BatchResult result = selector.solveAll(graphs, parallelism);
+                if(best == null || result.nanos() < best.nanos()) best = result;
+            }
+            System.out.printf("Parallelism %d: %.0f graphs/s, %d of %d unsolvable\n",
+                    parallelism, best.throughput(), best.unsolvedCount(), graphs.size());
+            if(parallelism == cores) break;
+        }
+    }
+
+    /**
+     * Counts the graphs in the given file that {@link SecretSantaSelector#precheck(IGraph)} rejects, and prints the
+     * explanation of every graph without a perfect matching.
+     */
+    public static void runFeasibilityReport(String filePath)
+    {
+        SecretSantaSelector selector = new SecretSantaSelector();
+        List<IGraph<String>> graphs = loadGraphs(filePath);
+        int prechecked = 0;
+        int infeasible = 0;
+        long start = System.nanoTime();
+        for(IGraph<String> graph : graphs){
+            if(selector.precheck(graph) != null) prechecked++;
+            HallViolation violation = selector.findViolation(graph);
+            if(violation != null){
+                infeasible++;
+                System.out.println(violation.explanation());
+            }
+        }
+        System.out.printf("Rejected by the precheck: %d of %d infeasible graphs, %d graphs in %d ms\n",
+                prechecked, infeasible, graphs.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Compares {@link SecretSantaSelector#solve(IGraph)} with and without the greedy warm start on the graphs in the
+     * given file, and counts the givers that the warm start leaves for the augmenting phases.
+     */
+    public static void runWarmStartBenchmark(String filePath)
+    {
+        List<IGraph<String>> graphs = loadGraphs(filePath).stream().map(CsrGraph::of).map(graph -> (IGraph<String>) graph).toList();
+        long vertices = 0;
+        long left = 0;
+        for(IGraph<String> graph : graphs){
+            String[] names = new String[graph.vertexCount()];
+            HopcroftKarp engine = SecretSantaSelector.engineOf(graph, names);
+            vertices += names.length;
+            left += names.length - engine.warmStart();
+        }
+        System.out.printf("Left unmatched by the warm start: %d of %d givers\n", left, vertices);
+        SecretSantaSelector[] selectors = {new SecretSantaSelector(false), new SecretSantaSelector(true)};
+        // A discarded pass of both, so neither is measured before the JIT compiled the shared code.
+        for(SecretSantaSelector selector : selectors){
+            solveAll(selector, graphs);
+        }
+        long[] best = {Long.MAX_VALUE, Long.MAX_VALUE};
+        for(int round = 0; round < 20; round++){
+            // Randomises which one runs first in every round, so neither profits from the other warming the caches.
+            int first = ThreadLocalRandom.current().nextInt(2);
+            for(int i = 0; i < 2; i++){
+                int mode = first ^ i;
+                best[mode] = Math.min(best[mode], solveAll(selectors[mode], graphs));
+            }
+        }
+        System.out.printf("Warm start false: %.0f graphs/s\n", graphs.size() / (best[0] / 1e9));
+        System.out.printf("Warm start true: %.0f graphs/s\n", graphs.size() / (best[1] / 1e9));
+    }
+
+    /**
+     * @return The nanoseconds it took the given selector to solve all given graphs.
+     */
+    private static long solveAll(SecretSantaSelector selector, List<IGraph<String>> graphs)
+    {
+        long start = System.nanoTime();
+        for(IGraph<String> graph : graphs){
+            selector.solve(graph);
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Runs {@link MinCostAssignment#auction(IGraph)} on random weighted graphs of growing size with 20 options per
+     * giver, on a single thread and on one thread per core.
+     */
+    public static void runAssignmentBenchmark()
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int cores = Runtime.getRuntime().availableProcessors();
+        for(int n = 1_000; n <= 8_000; n *= 2){
+            GraphBuilder<String> builder = new GraphBuilder<>(n, n * 20);
+            for(int i = 0; i < n; i++){
+                builder.addVertex("v" + i);
+            }
+            for(int i = 0; i < n; i++){
+                // The offset 1 closes a cycle through all participants, so a perfect assignment exists.
+                int[] offsets = IntStream.concat(IntStream.of(1), random.ints(2, n)).distinct().limit(20).toArray();
+                for(int offset : offsets){
+                    builder.addEdge("v" + i, "v" + ((i + offset) % n), random.nextInt(1_000));
+                }
+            }
+            IGraph<String> graph = builder.buildCsr();
+            for(int parallelism : IntStream.of(1, cores).distinct().toArray()){
+                long start = System.nanoTime();
+                WeightedSolution solution = new MinCostAssignment(parallelism).auction(graph);
+                System.out.printf("%d participants, parallelism %d: cost %d in %d ms\n", n, parallelism,
+                        solution.cost(), (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+    }
+
+    /**
+     * Draws random assignments of every solvable graph in the given file with an {@link AssignmentSampler}, and
+     * counts the distinct assignments among them.
+     */
+    public static void runSamplerBenchmark(String filePath, int drawsPerGraph)
+    {
+        SecretSantaSelector selector = new SecretSantaSelector();
+        List<IGraph<String>> graphs = loadGraphs(filePath).stream().filter(graph -> selector.solve(graph).isSolved()).toList();
+        long draws = 0;
+        long distinct = 0;
+        long start = System.nanoTime();
+        for(IGraph<String> graph : graphs){
+            AssignmentSampler sampler = new AssignmentSampler(graph, 42);
+            Set<Map<String, String>> seen = new HashSet<>();
+            for(int i = 0; i < drawsPerGraph; i++){
+                seen.add(sampler.next().getSolution());
+            }
+            draws += drawsPerGraph;
+            distinct += seen.size();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%d draws over %d graphs, %d distinct: %.0f draws/s\n",
+                draws, graphs.size(), distinct, draws / (elapsed / 1e9));
+    }
+
+    /**
+     * Searches a single cycle assignment for every graph in the given file, and counts the outcomes.
+     */
+    public static void runSingleCycleBenchmark(String filePath)
+    {
+        SecretSantaSelector selector = new SecretSantaSelector();
+        List<IGraph<String>> graphs = loadGraphs(filePath);
+        Map<CycleResult.Status, Integer> outcomes = new EnumMap<>(CycleResult.Status.class);
+        long start = System.nanoTime();
+        for(IGraph<String> graph : graphs){
+            outcomes.merge(selector.findSingleCycle(graph, Duration.ofMillis(100)).status(), 1, Integer::sum);
+        }
+        System.out.printf("%s over %d graphs in %d ms\n", outcomes, graphs.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Runs {@link SecretSantaSelector#findMaximumMatching(IGraph)} on complete graphs of growing size, and on the
+     * dense test files. Since every vertex is expanded at most once per phase, the time per edge stays flat as the
+     * graphs grow.
+     */
+    public static void runDenseBenchmark()
+    {
+        SecretSantaSelector selector = new SecretSantaSelector();
+        for(int n = 64; n <= 1_024; n *= 2){
+            GraphBuilder<String> builder = new GraphBuilder<>(n, n * (n - 1));
+            for(int i = 0; i < n; i++){
+                builder.addVertex("v" + i);
+            }
+            for(int i = 0; i < n; i++){
+                for(int j = 0; j < n; j++){
+                    if(i != j) builder.addEdge("v" + i, "v" + j);
+                }
+            }
+            IGraph<String> graph = builder.build();
+            long best = Long.MAX_VALUE;
+            for(int iter = 0; iter < 5; iter++){
+                long start = System.nanoTime();
+                selector.findMaximumMatching(graph);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            System.out.printf("Complete graph of %d vertices: %.1f ns per edge\n", n, (double) best / graph.edgeCount());
+        }
+        for(String filePath : new String[]{"src/test/java/trouble.csv", "src/test/java/shurlyPossible3.csv"}){
+            List<IGraph<String>> graphs = loadGraphs(filePath);
+            long edges = graphs.stream().mapToLong(IGraph::edgeCount).sum();
+            long best = Long.MAX_VALUE;
+            for(int iter = 0; iter < 5; iter++){
+                long start = System.nanoTime();
+                for(IGraph<String> graph : graphs){
+                    selector.findMaximumMatching(graph);
+                }
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            System.out.printf("%s: %.1f ns per edge\n", filePath, (double) best / edges);
+        }
+    }
+
+    /**
+     * Measures the edge insertion throughput on a single vertex with a high out-degree.
+     */
+    public static void runInsertBenchmark()
+    {
+        for(int degree : new int[]{1_000, 10_000, 100_000}){
+            List<Integer> vertices = new ArrayList<>(degree);
+            for(int i = 0; i < degree; i++){
+                vertices.add(i);
+            }
+            long best = Long.MAX_VALUE;
+            for(int iter = 0; iter < 5; iter++){
+                Graph<Integer> graph = new Graph<>();
+                graph.addVertices(vertices);
+                long start = System.nanoTime();
+                graph.addEdges(0, vertices);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            System.out.printf("Degree %d: %.0f edges/s\n", degree, degree / (best / 1e9));
+        }
+    }
+
+    /**
+     * Measures the throughput of a {@link ConcurrentGraph} under a mix of reads, connects and disconnects,
+     * for 1 up to 64 threads.
+     */
+    public static void runContentionBenchmark()
+    {
+        int vertexCount = 1_024;
+        int operationsPerThread = 200_000;
+        List<Integer> vertices = new ArrayList<>(vertexCount);
+        for(int i = 0; i < vertexCount; i++){
+            vertices.add(i);
+        }
+        for(int threads = 1; threads <= 64; threads *= 2){
+            ConcurrentGraph<Integer> graph = new ConcurrentGraph<>();
+            graph.addVertices(vertices);
+            List<Thread> workers = new ArrayList<>(threads);
+            for(int t = 0; t < threads; t++){
+                workers.add(new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for(int i = 0; i < operationsPerThread; i++){
+                        int start = random.nextInt(vertexCount);
+                        int end = random.nextInt(vertexCount);
+                        int operation = random.nextInt(4);
+                        try{
+                            if(operation == 0) graph.connect(start, end);
+                            else if(operation == 1) graph.disconnect(start, end);
+                            else graph.hasEdge(start, end);
+                        }catch(IllegalStateException ignored){
+                            // The edge already existed.
+                        }
                     }
-                }else{
-                    String[] keyValue = line.split(",");
-                    List<String> values = keyValue.length == 2 ? Arrays.stream(keyValue[1].split(" ")).toList() : new ArrayList<>();
-                    info.put(keyValue[0].trim(), values);
+                }));
+            }
+            long start = System.nanoTime();
+            workers.forEach(Thread::start);
+            for(Thread worker : workers){
+                try{
+                    worker.join();
+                }catch(InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    return;
                 }
             }
-        } catch (IOException e) {
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("Threads %d: %.0f ops/s\n", threads, (double) threads * operationsPerThread / (elapsed / 1e9));
+        }
+    }
+
+    /**
+     * Compares the throughput of {@link GraphReader} with that of {@link MappedGraphLoader} on the given file, in MB/s,
+     * and checks that both load the same amount of graphs.
+     */
+    public static void runLoaderBenchmark(String filePath)
+    {
+        Path path = Path.of(filePath);
+        int cores = Runtime.getRuntime().availableProcessors();
+        try{
+            double megabytes = Files.size(path) / 1e6;
+            long streaming = Long.MAX_VALUE;
+            long mapped = Long.MAX_VALUE;
+            int read = 0;
+            int loaded = 0;
+            for(int iter = 0; iter < 10; iter++){
+                long start = System.nanoTime();
+                read = GraphReader.readAll(path).size();
+                streaming = Math.min(streaming, System.nanoTime() - start);
+                start = System.nanoTime();
+                loaded = MappedGraphLoader.load(path, cores).size();
+                mapped = Math.min(mapped, System.nanoTime() - start);
+            }
+            if(read != loaded)
+                throw new IllegalStateException("Loaders disagree: " + read + " and " + loaded + " graphs.");
+            System.out.printf("Graphs: %d\n", read);
+            System.out.printf("GraphReader: %.1f MB/s\n", megabytes / (streaming / 1e9));
+            System.out.printf("MappedGraphLoader (%d threads, %d chunks): %.1f MB/s\n",
+                    cores, MappedGraphLoader.chunkCount(path, cores), megabytes / (mapped / 1e9));
+        }catch(IOException e){
+            e.printStackTrace();
+        }
+    }
+
+    private static List<IGraph<String>> loadGraphs(String filePath)
+    {
+        try{
+            return new ArrayList<>(GraphReader.readAll(Path.of(filePath)));
+        }catch(IOException e){
             e.printStackTrace();
+            return new ArrayList<>();
         }
-        return graphs;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,210 @@
+package org.example;
+
+import graph.CsrGraph;
+import graph.IGraph;
+import graph.IIndexedGraph;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Holds the scratch state of a solve: the graph in compressed sparse row form, the ids of the participants, and a
+ * {@link HopcroftKarp} engine. All arrays only grow, so once a workspace has seen a graph of a given size, loading
+ * graphs up to that size allocates nothing. Every thread gets its own workspace through {@link #current()}.
+ * The names of a graph are dropped once they are copied, or released, so a long-lived thread does not keep the
+ * strings of its last graph reachable.
+ * <p>
+ * The ids of a graph without indices are kept in an open-addressing hash table. Instead of clearing the table for
+ * every graph, every slot is stamped with the generation that filled it, and slots of older generations count as
+ * empty. Only the keys of the loaded graph are cleared once it is loaded.
+ */
+final class MatchingWorkspace
+{
+    private static final ThreadLocal<MatchingWorkspace> CURRENT = ThreadLocal.withInitial(MatchingWorkspace::new);
+
+    private final HopcroftKarp engine = new HopcroftKarp();
+    private String[] names = new String[16];
+    private int[] offsets = new int[17];
+    private int[] targets = new int[64];
+    private int size;
+    private int cursor;
+    private String[] keys = new String[32];
+    private int[] ids = new int[32];
+    private int[] generations = new int[32];
+    private int generation;
+    private final Consumer<String> vertexAction = this::addName;
+    private final Consumer<String> successorAction = name -> targets[cursor++] = idOf(name);
+    private final IntConsumer successorIndexAction = index -> targets[cursor++] = index;
+
+    private MatchingWorkspace()
+    {
+
+    }
+
+    /**
+     * @return The workspace of the calling thread.
+     */
+    static MatchingWorkspace current()
+    {
+        return CURRENT.get();
+    }
+
+    /**
+     * Returns the names of the participants of the last loaded graph, by id, in a new array, and releases them from
+     * this workspace.
+     */
+    String[] copyNames()
+    {
+        String[] copy = Arrays.copyOf(names, size);
+        releaseNames();
+        return copy;
+    }
+
+    /**
+     * Releases the names of the last loaded graph, for callers that do not need them.
+     */
+    void releaseNames()
+    {
+        Arrays.fill(names, 0, size, null);
+    }
+
+    /**
+     * Loads the given graph into the engine, with an empty matching.
+     *
+     * @return The engine, which stays owned by this workspace.
+     */
+    HopcroftKarp load(IGraph<String> graph)
+    {
+        int n = graph.vertexCount();
+        if(names.length < n){
+            names = new String[Math.max(n, names.length * 2)];
+            offsets = new int[names.length + 1];
+        }
+        size = n;
+        offsets[0] = 0;
+        try{
+            if(graph instanceof CsrGraph<String> csr){
+                loadCsr(csr);
+            }else if(graph instanceof IIndexedGraph<String> indexed){
+                loadIndexed(indexed);
+            }else{
+                loadGraph(graph);
+            }
+        }catch(RuntimeException e){
+            Arrays.fill(keys, null);
+            Arrays.fill(names, null);
+            throw e;
+        }
+        engine.reset(n, offsets, targets);
+        return engine;
+    }
+
+    private void loadCsr(CsrGraph<String> graph)
+    {
+        for(int u = 0; u < size; u++){
+            names[u] = graph.objectAt(u);
+            offsets[u + 1] = offsets[u] + graph.degreeAt(u);
+        }
+        ensureEdges(offsets[size]);
+        for(int u = 0; u < size; u++){
+            int base = offsets[u] - graph.edgeStart(u);
+            for(int edge = graph.edgeStart(u); edge < graph.edgeEnd(u); edge++){
+                targets[base + edge] = graph.targetAt(edge);
+            }
+        }
+    }
+
+    private void loadIndexed(IIndexedGraph<String> graph)
+    {
+        for(int u = 0; u < size; u++){
+            names[u] = graph.objectAt(u);
+            offsets[u + 1] = offsets[u] + graph.degreeAt(u);
+        }
+        ensureEdges(offsets[size]);
+        cursor = 0;
+        for(int u = 0; u < size; u++){
+            graph.forEachSuccessorIndex(u, successorIndexAction);
+        }
+    }
+
+    private void loadGraph(IGraph<String> graph)
+    {
+        generation++;
+        if(generation == 0){
+            Arrays.fill(generations, 0);
+            generation = 1;
+        }
+        if(keys.length < 2 * size){
+            int capacity = Integer.highestOneBit(Math.max(2 * size - 1, 1)) << 1;
+            keys = new String[capacity];
+            ids = new int[capacity];
+            generations = new int[capacity];
+        }
+        cursor = 0;
+        graph.forEachVertex(vertexAction);
+        for(int u = 0; u < size; u++){
+            offsets[u + 1] = offsets[u] + graph.getDegree(names[u]);
+        }
+        ensureEdges(offsets[size]);
+        cursor = 0;
+        for(int u = 0; u < size; u++){
+            graph.forEachSuccessor(names[u], successorAction);
+        }
+        releaseKeys();
+    }
+
+    /**
+     * Clears the keys of the loaded graph from the table. Their slots keep the current generation, which is harmless
+     * since the table is not used again until the next graph bumps the generation.
+     */
+    private void releaseKeys()
+    {
+        int mask = keys.length - 1;
+        for(int u = 0; u < size; u++){
+            int slot = hash(names[u]) & mask;
+            while(keys[slot] == null || !keys[slot].equals(names[u])){
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = null;
+        }
+    }
+
+    private void ensureEdges(int edges)
+    {
+        if(targets.length < edges){
+            targets = new int[Math.max(edges, targets.length * 2)];
+        }
+    }
+
+    private void addName(String name)
+    {
+        int id = cursor++;
+        names[id] = name;
+        int mask = keys.length - 1;
+        int slot = hash(name) & mask;
+        while(generations[slot] == generation){
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = name;
+        ids[slot] = id;
+        generations[slot] = generation;
+    }
+
+    private int idOf(String name)
+    {
+        int mask = keys.length - 1;
+        int slot = hash(name) & mask;
+        while(generations[slot] == generation){
+            if(keys[slot].equals(name)) return ids[slot];
+            slot = (slot + 1) & mask;
+        }
+        throw new IllegalStateException("Successor is not a vertex.");
+    }
+
+    private static int hash(String name)
+    {
+        int hash = name.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+}
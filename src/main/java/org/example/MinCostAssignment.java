@@ -0,0 +1,348 @@
+package org.example;
+
+import graph.IGraph;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Finds the perfect assignment with the smallest sum of edge weights, so preferences and penalties can be encoded
+ * as weights. Every solver first checks with {@link HopcroftKarp} that a perfect assignment exists.
+ * <p>
+ * {@link #hungarian(IGraph)} runs the Hungarian algorithm on a dense cost matrix in O(V^3).
+ * {@link #auction(IGraph)} runs Bertsekas' auction algorithm with epsilon scaling on the edges only. Every round,
+ * all unassigned givers bid on their best recipient at once (Jacobi style), so the bids are computed in parallel.
+ */
+public final class MinCostAssignment
+{
+    /**
+     * The least amount of bidders in a round for the bids to be computed in parallel.
+     */
+    private static final int PARALLEL_BIDDERS = 512;
+    /**
+     * The largest amount of vertices the Hungarian algorithm accepts. Its cost matrix then takes 32 MB, and its cubic
+     * running time stays in the order of seconds.
+     */
+    private static final int MAX_HUNGARIAN_VERTICES = 2048;
+    private static final int NONE = HopcroftKarp.NONE;
+
+    private final int parallelism;
+
+    /**
+     * Creates a new solver, that runs on the calling thread.
+     */
+    public MinCostAssignment()
+    {
+        this(1);
+    }
+
+    /**
+     * Creates a new solver.
+     * @param parallelism The amount of threads the auction bids with.
+     *
+     * @throws IllegalArgumentException If the parallelism is smaller than 1.
+     */
+    public MinCostAssignment(int parallelism)
+    {
+        if(parallelism < 1){
+            throw new IllegalArgumentException("Parallelism is smaller than 1.");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Finds a cheapest perfect assignment with {@link #hungarian(IGraph)} if the graph is small or dense, and with
+     * {@link #auction(IGraph)} otherwise, or if the graph has more than 2048 vertices.
+     *
+     * @throws IllegalArgumentException If the graph goes to the auction and its weights are too large for it.
+     */
+    public WeightedSolution solve(IGraph<String> graph)
+    {
+        long n = graph.vertexCount();
+        if(n <= MAX_HUNGARIAN_VERTICES && (n <= 64 || n * n <= 8L * graph.edgeCount())){
+            return hungarian(graph);
+        }
+        return auction(graph);
+    }
+
+    /**
+     * Finds a cheapest perfect assignment with the Hungarian algorithm, in O(V^3) time and O(V^2) memory.
+     *
+     * @return The assignment, or an unsolved solution holding a {@link HallViolation} if there is none.
+     * @throws IllegalArgumentException If the graph has more than 2048 vertices.
+     */
+    public WeightedSolution hungarian(IGraph<String> graph)
+    {
+        Objects.requireNonNull(graph, "Graph is null.");
+        if(graph.vertexCount() > MAX_HUNGARIAN_VERTICES){
+            throw new IllegalArgumentException("The graph is too large for the Hungarian algorithm, use the auction.");
+        }
+        Instance instance = Instance.of(graph, new String[graph.vertexCount()], true);
+        WeightedSolution infeasible = checkFeasible(instance);
+        if(infeasible != null) return infeasible;
+        int n = instance.size();
+        long forbidden = forbiddenCost(instance);
+        long[] cost = new long[n * n];
+        Arrays.fill(cost, forbidden);
+        for(int u = 0; u < n; u++){
+            for(int edge = instance.offsets[u]; edge < instance.offsets[u + 1]; edge++){
+                cost[u * n + instance.targets[edge]] = instance.weights[edge];
+            }
+        }
+        // Rows are givers and columns are recipients, both 1-based. Column 0 is a sentinel.
+        long[] rowPotential = new long[n + 1];
+        long[] columnPotential = new long[n + 1];
+        int[] rowOf = new int[n + 1];
+        int[] way = new int[n + 1];
+        long[] slack = new long[n + 1];
+        boolean[] used = new boolean[n + 1];
+        for(int row = 1; row <= n; row++){
+            rowOf[0] = row;
+            int column = 0;
+            Arrays.fill(slack, Long.MAX_VALUE);
+            Arrays.fill(used, false);
+            do{
+                used[column] = true;
+                int current = rowOf[column];
+                long delta = Long.MAX_VALUE;
+                int nextColumn = 0;
+                for(int j = 1; j <= n; j++){
+                    if(used[j]) continue;
+                    long reduced = cost[(current - 1) * n + j - 1] - rowPotential[current] - columnPotential[j];
+                    if(reduced < slack[j]){
+                        slack[j] = reduced;
+                        way[j] = column;
+                    }
+                    if(slack[j] < delta){
+                        delta = slack[j];
+                        nextColumn = j;
+                    }
+                }
+                for(int j = 0; j <= n; j++){
+                    if(used[j]){
+                        rowPotential[rowOf[j]] += delta;
+                        columnPotential[j] -= delta;
+                    }else{
+                        slack[j] -= delta;
+                    }
+                }
+                column = nextColumn;
+            }while(rowOf[column] != 0);
+            do{
+                int previous = way[column];
+                rowOf[column] = rowOf[previous];
+                column = previous;
+            }while(column != 0);
+        }
+        int[] recipients = new int[n];
+        for(int j = 1; j <= n; j++){
+            recipients[rowOf[j] - 1] = j - 1;
+        }
+        return solution(instance, recipients);
+    }
+
+    /**
+     * Finds a cheapest perfect assignment with the auction algorithm. The weights are scaled by V + 1, so the
+     * assignment found at epsilon 1 is optimal.
+     *
+     * @return The assignment, or an unsolved solution holding a {@link HallViolation} if there is none.
+     * @throws IllegalArgumentException If the scaled weights and the prices they lead to could overflow a long.
+     */
+    public WeightedSolution auction(IGraph<String> graph)
+    {
+        Objects.requireNonNull(graph, "Graph is null.");
+        Instance instance = Instance.of(graph, new String[graph.vertexCount()], true);
+        WeightedSolution infeasible = checkFeasible(instance);
+        if(infeasible != null) return infeasible;
+        checkAuctionRange(instance);
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        try{
+            return solution(instance, new Auction(instance, pool).run());
+        }finally{
+            if(pool != null) pool.shutdown();
+        }
+    }
+
+    /**
+     * @return An unsolved solution if the given instance has no perfect assignment. Null otherwise.
+     */
+    private static WeightedSolution checkFeasible(Instance instance)
+    {
+        HopcroftKarp engine = new HopcroftKarp(instance.size(), instance.offsets, instance.targets);
+        engine.warmStart();
+        if(engine.run() == instance.size()) return null;
+        SecretSantaSolution solution = SecretSantaSolution.of(instance.names, engine.pairU,
+                FeasibilityCheck.witness(instance.names, engine));
+        return new WeightedSolution(solution, Long.MAX_VALUE);
+    }
+
+    /**
+     * Checks that the auction cannot overflow. Benefits are weights scaled by V + 1, and a price never rises above
+     * V times the span of the benefits plus a bid margin, so 4 * (|w| + 1) * (V + 1)^2 bounds every value involved.
+     *
+     * @throws IllegalArgumentException If that bound does not fit in a long.
+     */
+    private static void checkAuctionRange(Instance instance)
+    {
+        long largest = 0;
+        for(int weight : instance.weights){
+            largest = Math.max(largest, Math.abs((long) weight));
+        }
+        long scale = instance.size() + 1L;
+        try{
+            Math.multiplyExact(Math.multiplyExact(4 * (largest + 1), scale), scale);
+        }catch(ArithmeticException e){
+            throw new IllegalArgumentException("The weights are too large for the auction on a graph of this size.");
+        }
+    }
+
+    /**
+     * @return A cost higher than that of any assignment that only uses edges.
+     */
+    private static long forbiddenCost(Instance instance)
+    {
+        long largest = 0;
+        for(int weight : instance.weights){
+            largest = Math.max(largest, Math.abs((long) weight));
+        }
+        return 2 * (largest + 1) * (instance.size() + 1);
+    }
+
+    private static WeightedSolution solution(Instance instance, int[] recipients)
+    {
+        long cost = 0;
+        for(int u = 0; u < instance.size(); u++){
+            cost += weightOf(instance, u, recipients[u]);
+        }
+        return new WeightedSolution(SecretSantaSolution.of(instance.names, recipients, null), cost);
+    }
+
+    private static int weightOf(Instance instance, int giver, int recipient)
+    {
+        for(int edge = instance.offsets[giver]; edge < instance.offsets[giver + 1]; edge++){
+            if(instance.targets[edge] == recipient) return instance.weights[edge];
+        }
+        throw new IllegalStateException("Assignment uses a missing edge.");
+    }
+
+    /**
+     * Runs the auction. Givers maximize the benefit of an edge, which is its negated, scaled weight, minus the price
+     * of its recipient.
+     */
+    private static final class Auction
+    {
+        private final Instance instance;
+        private final ForkJoinPool pool;
+        private final int n;
+        private final long[] benefits;
+        private final long[] prices;
+        private final int[] recipientOf;
+        private final int[] giverOf;
+        private final int[] bidders;
+        private final int[] bidTarget;
+        private final long[] bidValue;
+        private final int[] winner;
+        private final long span;
+        private long epsilon;
+
+        Auction(Instance instance, ForkJoinPool pool)
+        {
+            this.instance = instance;
+            this.pool = pool;
+            this.n = instance.size();
+            this.benefits = new long[instance.targets.length];
+            long low = Long.MAX_VALUE;
+            long high = Long.MIN_VALUE;
+            for(int edge = 0; edge < benefits.length; edge++){
+                benefits[edge] = -(long) instance.weights[edge] * (n + 1);
+                low = Math.min(low, benefits[edge]);
+                high = Math.max(high, benefits[edge]);
+            }
+            this.span = benefits.length == 0 ? 1 : Math.max(1, high - low);
+            this.prices = new long[n];
+            this.recipientOf = new int[n];
+            this.giverOf = new int[n];
+            this.bidders = new int[n];
+            this.bidTarget = new int[n];
+            this.bidValue = new long[n];
+            this.winner = new int[n];
+            Arrays.fill(winner, NONE);
+        }
+
+        int[] run()
+        {
+            epsilon = Math.max(1, span / 2);
+            while(true){
+                Arrays.fill(recipientOf, NONE);
+                Arrays.fill(giverOf, NONE);
+                runPhase();
+                if(epsilon == 1) return recipientOf;
+                epsilon = Math.max(1, epsilon / 5);
+            }
+        }
+
+        /**
+         * Runs bidding rounds until every giver is assigned.
+         */
+        private void runPhase()
+        {
+            while(true){
+                int count = 0;
+                for(int u = 0; u < n; u++){
+                    if(recipientOf[u] == NONE) bidders[count++] = u;
+                }
+                if(count == 0) return;
+                int bidderCount = count;
+                if(pool != null && bidderCount >= PARALLEL_BIDDERS){
+                    pool.submit(() -> IntStream.range(0, bidderCount).parallel().forEach(this::bid)).join();
+                }else{
+                    for(int i = 0; i < bidderCount; i++){
+                        bid(i);
+                    }
+                }
+                for(int i = 0; i < bidderCount; i++){
+                    int u = bidders[i];
+                    int v = bidTarget[u];
+                    if(winner[v] == NONE || bidValue[u] > bidValue[winner[v]]) winner[v] = u;
+                }
+                for(int i = 0; i < bidderCount; i++){
+                    int v = bidTarget[bidders[i]];
+                    int u = winner[v];
+                    if(u == NONE) continue;
+                    winner[v] = NONE;
+                    if(giverOf[v] != NONE) recipientOf[giverOf[v]] = NONE;
+                    giverOf[v] = u;
+                    recipientOf[u] = v;
+                    prices[v] = bidValue[u];
+                }
+            }
+        }
+
+        /**
+         * Computes the bid of the i-th bidder: the price of its best recipient, raised by the margin over its second
+         * best recipient plus epsilon. Only reads shared state, so bids can be computed in parallel.
+         */
+        private void bid(int i)
+        {
+            int u = bidders[i];
+            long best = Long.MIN_VALUE;
+            long second = Long.MIN_VALUE;
+            int target = NONE;
+            for(int edge = instance.offsets[u]; edge < instance.offsets[u + 1]; edge++){
+                long value = benefits[edge] - prices[instance.targets[edge]];
+                if(value > best){
+                    second = best;
+                    best = value;
+                    target = instance.targets[edge];
+                }else if(value > second){
+                    second = value;
+                }
+            }
+            long margin = second == Long.MIN_VALUE ? span : best - second;
+            bidTarget[u] = target;
+            bidValue[u] = prices[target] + margin + epsilon;
+        }
+    }
+}
@@ -1,141 +1,230 @@
 package org.example;
 
 import graph.IGraph;
-import tree.Node;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 public final class SecretSantaSelector {
 
+    private final boolean warmStart;
+    /**
+     * The pools of {@link #solveAll(Stream, int)}, by parallelism. Pools are never shut down, so a batch can never
+     * be rejected by a pool that another batch replaced; their idle workers end after the keep-alive time.
+     */
+    private final Map<Integer, ForkJoinPool> pools = new ConcurrentHashMap<>();
 
+    /**
+     * Creates a new selector, that runs the augmenting phases without a warm start. On the small graphs of the test
+     * corpora, the warm start costs more than it saves; see {@link Main#runWarmStartBenchmark(String)}.
+     */
     public SecretSantaSelector()
     {
+        this(false);
+    }
 
+    /**
+     * Creates a new selector.
+     * @param warmStart Whether to find a greedy matching before the augmenting phases. See {@link HopcroftKarp#warmStart()}.
+     */
+    public SecretSantaSelector(boolean warmStart)
+    {
+        this.warmStart = warmStart;
     }
 
     /**
-     * Creates a bipartite graph of the given input graph, setting both U and V to the set of vertices of the input
-     * graph. Then runs Hopcroft-Karp's algorithm to solve.
-     * Note that to discern the same vertices in U and V, a "2" is added for vertices in V.
+     * Finds a maximum matching of the given graph, in which every participant gifts at most one participant it has an
+     * edge to, and is gifted by at most one participant. Same as {@link #solve(IGraph)}.
      */
     public SecretSantaSolution findMaximumMatching(IGraph<String> graph)
     {
-        Set<String> U = graph.getVertices();
-        Set<String> V = new HashSet<>(graph.vertexCount());
-        Map<String, List<String>> edges = new HashMap<>(graph.vertexCount());
-        for(String vertex : graph.getVertices()){
-            V.add(vertex + SecretSantaSolution.SEPARATOR);
-            edges.put(vertex, new ArrayList<>());
-            for(String s : graph.getSuccessors(vertex)){
-                edges.get(vertex).add(s + SecretSantaSolution.SEPARATOR);
-            }
+        return solve(graph);
+    }
+
+    /**
+     * Finds a maximum matching of the given graph with Hopcroft-Karp's algorithm on dense int ids.
+     * See {@link HopcroftKarp}. The scratch state lives in the {@link MatchingWorkspace} of the calling thread, so
+     * once warm, only the returned solution is allocated.
+     * If the graph has no perfect matching, the solution holds a {@link HallViolation} that proves it.
+     */
+    public SecretSantaSolution solve(IGraph<String> graph)
+    {
+        Objects.requireNonNull(graph, "Graph is null.");
+        MatchingWorkspace workspace = MatchingWorkspace.current();
+        HopcroftKarp engine = run(workspace.load(graph));
+        String[] names = workspace.copyNames();
+        int[] recipients = Arrays.copyOf(engine.pairU, names.length);
+        return SecretSantaSolution.of(names, recipients, FeasibilityCheck.witness(names, engine));
+    }
+
+    /**
+     * Checks whether the given graph has a perfect matching, like {@link #solve(IGraph)}, but without building a
+     * solution. Once the workspace of the calling thread is warm, allocates nothing for indexed graphs.
+     */
+    public boolean isSolvable(IGraph<String> graph)
+    {
+        Objects.requireNonNull(graph, "Graph is null.");
+        MatchingWorkspace workspace = MatchingWorkspace.current();
+        HopcroftKarp engine = run(workspace.load(graph));
+        workspace.releaseNames();
+        for(int u = 0; u < engine.size(); u++){
+            if(engine.pairU[u] == HopcroftKarp.NONE) return false;
         }
-        for(String v : V){
-            edges.put(v, new ArrayList<>());
+        return true;
+    }
+
+    private HopcroftKarp run(HopcroftKarp engine)
+    {
+        if(warmStart){
+            engine.warmStart();
         }
-        Map<String, List<String>> solution = hopCroftKarp(U, V, edges);
-        return new SecretSantaSolution(solution);
+        engine.run();
+        return engine;
     }
 
     /**
-     * Runs Hopcroft-Karp's algorithm, which is a 2-step algorithm for finding a maximal matching.
-     * In step 1, using BFS, the algorithm finds unmatched points in V to match up to unmatched points in U.
-     * This is possible thanks to the tree formed in this step.
-     * *
-     * In step 2, the algorithm will traverse back up these paths in opposite direction (so, V -> U) to finalize
-     * the path. During the ENTIRE step (so, for all paths found in step 1), will it keep track of a set of used
-     * vertices in the graph. No path is allowed to use any vertices from this set, so when a new path is selected
-     * it locks all the nodes it traverses over. On top of that, all edges on the path are flipped directionally,
-     * so edges from U->V now go from V->U and vice versa. Note that edges are also not allowed to be re-used for
-     * the entire iteration, but that's already enforced by the vertex rule. After locking in a path, the start
-     * and end point are removed from V and U respectively.
-     * *
-     * If at any point step 1 results in no new endpoints, the algorithm is done. This can both mean the graph
-     * has been solved (a maximal matching has been found), or no such matching exists.
-     * @param U The set of vertices in U. Is changed.
-     * @param V The set of vertices in V. Is changed.
-     * @param edges The map of edges between U and V. Is changed.
+     * Looks for participants that cannot give or receive a gift, and for small groups of participants that compete
+     * for fewer options, in O(V + E) and without matching.
      *
-     * @return The final map of edges.
+     * @return The first violation found, or null if none was found. In the latter case, the graph can still have no
+     *         perfect matching.
      */
-    private Map<String, List<String>> hopCroftKarp(Set<String> U, Set<String> V, Map<String, List<String>> edges)
+    public HallViolation precheck(IGraph<String> graph)
     {
-        while(true){
-            List<Node<String>> endpoints = findEndpoints(U, V, edges);
-            if(endpoints.isEmpty()) break;
-            Set<String> usedVertices = new HashSet<>();
-            for(Node<String> endpoint : endpoints){
-                if(anyInPath(usedVertices, endpoint.copy())) continue;
-                V.remove(endpoint.value());
-                while(endpoint.parent() != null){
-                    String start = endpoint.value();
-                    String next = endpoint.parent().value();
-                    edges.get(next).remove(start);
-                    edges.get(start).add(next);
-                    usedVertices.add(start);
-                    endpoint = endpoint.parent();
-                }
-                usedVertices.add(endpoint.value());
-                U.remove(endpoint.value());
-            }
+        Objects.requireNonNull(graph, "Graph is null.");
+        return FeasibilityCheck.precheck(graph);
+    }
+
+    /**
+     * Proves that the given graph has no perfect matching. Runs {@link #precheck(IGraph)} first, and only finds a
+     * maximum matching if it finds nothing.
+     *
+     * @return The violation, or null if the graph has a perfect matching.
+     */
+    public HallViolation findViolation(IGraph<String> graph)
+    {
+        HallViolation violation = precheck(graph);
+        if(violation != null) return violation;
+        MatchingWorkspace workspace = MatchingWorkspace.current();
+        HopcroftKarp engine = run(workspace.load(graph));
+        return FeasibilityCheck.witness(workspace.copyNames(), engine);
+    }
+
+    /**
+     * Finds k assignments of the given graph that share no giver-recipient pair, for k rounds of draws.
+     * Fails fast if any participant can give to, or be gifted by, fewer than k participants. Otherwise, runs in
+     * O(E * sqrt(V)) for the flow plus k times Hopcroft-Karp's algorithm on a subgraph of V * k edges.
+     * See {@link DisjointMatchings}.
+     * @param graph The graph.
+     * @param k The amount of rounds.
+     *
+     * @return The k assignments, or an empty list if there are no k such assignments.
+     * @throws IllegalArgumentException If k is smaller than 1.
+     */
+    public List<SecretSantaSolution> findDisjointMatchings(IGraph<String> graph, int k)
+    {
+        Objects.requireNonNull(graph, "Graph is null.");
+        if(k < 1){
+            throw new IllegalArgumentException("The amount of rounds is smaller than 1.");
         }
-        return edges;
+        Instance instance = Instance.of(graph, new String[graph.vertexCount()], false);
+        List<SecretSantaSolution> solutions = new ArrayList<>(k);
+        for(int[] recipients : DisjointMatchings.find(instance, k)){
+            solutions.add(SecretSantaSolution.of(instance.names, recipients, null));
+        }
+        return solutions;
     }
 
     /**
-     * Runs breadth-first search to find all possible paths from elements in U to elements in V and returns said
-     * elements in V as tree nodes, whereby using .parent() will rebuild the found path back up from V -> U.
-     * Note that traversal over a path will always go back and forth between U/V, ping pong style.
-     * @param U The set of *yet* unmatched vertices in U. Remains unchanged.
-     * @param V The set of *yet* unmatched vertices in V. Remains unchanged.
-     * @param edges The map of edges. Remains unchanged.
+     * Finds an assignment that forms a single cycle through all participants, so no group of participants only gifts
+     * each other. See {@link SingleCycleSearch}.
+     * @param graph The graph.
+     * @param budget The time budget of the search.
      *
-     * @return The list of elements in V that were found to have a path to (from U), in tree Node form.
+     * @return The outcome: the assignment, a proof of impossibility, or a time out.
      */
-    private List<Node<String>> findEndpoints(Set<String> U, Set<String> V, Map<String, List<String>> edges)
+    public CycleResult findSingleCycle(IGraph<String> graph, Duration budget)
     {
-        List<Node<String>> endpoints = new ArrayList<>();
-        boolean UtoV = true;
-        Queue<Node<String>> queue = new LinkedList<>();
-        for(String u : U){
-            queue.add(new Node<>(u));
+        Objects.requireNonNull(graph, "Graph is null.");
+        Objects.requireNonNull(budget, "Budget is null.");
+        Instance instance = Instance.of(graph, new String[graph.vertexCount()], false);
+        int[] recipients = SingleCycleSearch.find(instance, budget.toNanos());
+        if(recipients == null){
+            return new CycleResult(CycleResult.Status.IMPOSSIBLE, null);
         }
-        while(!queue.isEmpty()){
-            int queueSize = queue.size();
-            for(int i = 0; i < queueSize; i++){
-                Node<String> current = queue.poll();
-                for(String next : edges.get(current.value())){
-                    if(isInPath(next, current.copy())) continue;
-                    Node<String> nextNode = new Node<>(current, next);
-                    boolean isUnmatchedInV = UtoV && V.contains(next);
-                    if(isUnmatchedInV){
-                        endpoints.add(nextNode);
-                    }else{
-                        queue.add(nextNode);
-                    }
-                }
-            }
-            if(!endpoints.isEmpty()) break;
-            UtoV  = !UtoV;
+        if(recipients == SingleCycleSearch.TIMED_OUT){
+            return new CycleResult(CycleResult.Status.TIMED_OUT, null);
         }
-        return endpoints;
+        return new CycleResult(CycleResult.Status.FOUND, SecretSantaSolution.of(instance.names, recipients, null));
     }
 
-    private boolean isInPath(String value, Node<String> node)
+    /**
+     * Solves every graph of the given list with {@link #solve(IGraph)}, in parallel.
+     * @param graphs The graphs.
+     * @param parallelism The amount of worker threads.
+     *
+     * @return The solutions, in the order of the graphs.
+     * @throws IllegalArgumentException If the parallelism is smaller than 1.
+     */
+    public BatchResult solveAll(List<? extends IGraph<String>> graphs, int parallelism)
     {
-        while(node != null){
-            if(node.value().equals(value)) return true;
-            node = node.parent();
+        Objects.requireNonNull(graphs, "List is null.");
+        return solveAll(graphs.stream(), parallelism);
+    }
+
+    /**
+     * Solves every graph of the given stream with {@link #solve(IGraph)}, in parallel.
+     * The graphs are solved on a fork-join pool of this selector, so the common pool is left alone. There is one pool
+     * per parallelism, kept between batches, so its workers keep their warm {@link MatchingWorkspace}; idle workers
+     * end after the keep-alive time of the pool.
+     * @param graphs The graphs.
+     * @param parallelism The amount of worker threads.
+     *
+     * @return The solutions, in the encounter order of the stream.
+     * @throws IllegalArgumentException If the parallelism is smaller than 1.
+     */
+    public BatchResult solveAll(Stream<? extends IGraph<String>> graphs, int parallelism)
+    {
+        Objects.requireNonNull(graphs, "Stream is null.");
+        if(parallelism < 1){
+            throw new IllegalArgumentException("Parallelism is smaller than 1.");
         }
-        return false;
+        ForkJoinPool pool = pools.computeIfAbsent(parallelism, ForkJoinPool::new);
+        long start = System.nanoTime();
+        List<SecretSantaSolution> solutions = pool.submit(
+                () -> graphs.parallel().<SecretSantaSolution>map(this::solve).toList()).join();
+        return new BatchResult(solutions, System.nanoTime() - start);
     }
 
-    private boolean anyInPath(Set<String> values, Node<String> node)
+    /**
+     * Finds a maximum matching of the given graph on dense int ids.
+     * @param graph The graph.
+     * @param names Is filled with the name of each participant, by id. Must be of length graph.vertexCount().
+     * @param warmStart Whether to find a greedy matching before the augmenting phases.
+     *
+     * @return The engine, holding the maximum matching.
+     */
+    static HopcroftKarp match(IGraph<String> graph, String[] names, boolean warmStart)
     {
-        while(node != null){
-            if(values.contains(node.value())) return true;
-            node = node.parent();
+        HopcroftKarp engine = engineOf(graph, names);
+        if(warmStart){
+            engine.warmStart();
         }
-        return false;
+        engine.run();
+        return engine;
+    }
+
+    /**
+     * Creates an engine with an empty matching for the given graph.
+     * @param graph The graph.
+     * @param names Is filled with the name of each participant, by id. Must be of length graph.vertexCount().
+     */
+    static HopcroftKarp engineOf(IGraph<String> graph, String[] names)
+    {
+        Instance instance = Instance.of(graph, names, false);
+        return new HopcroftKarp(instance.size(), instance.offsets, instance.targets);
     }
 }
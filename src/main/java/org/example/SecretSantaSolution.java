@@ -2,53 +2,190 @@ package org.example;
 
 import java.util.*;
 
+/**
+ * Represents an assignment of recipients to givers.
+ * The assignment is stored as the id of the recipient of every giver, over a dictionary of names that solutions of
+ * the same graph can share. The {@link Map} views are only built when asked for.
+ */
 public final class SecretSantaSolution
 {
-    private final Map<String, String> solution;
-    private final boolean solved;
     public final static String SEPARATOR = "~";
+    private final static String NO_MAPPING = "No mapping found!";
+    private final static int NONE = -1;
 
+    private final String[] names;
+    private final int[] giverToRecipient;
+    private final int unmatchedCount;
+    private final HallViolation violation;
+    private Map<String, String> solution;
+    private Map<String, String> assignment;
+    private Set<String> unmatched;
+
+    /**
+     * Creates a solution from the edge map of a matched bipartite graph, in which the edge of every matched pair
+     * points from the recipient, marked with the {@link #SEPARATOR}, to the giver.
+     */
     public SecretSantaSolution(Map<String, List<String>> result)
     {
-        this.solution = extractSolution(result);
-        this.solved = isSolved(solution);
+        int givers = 0;
+        for(String key : result.keySet()){
+            if(!key.endsWith(SEPARATOR)) givers++;
+        }
+        this.names = new String[givers];
+        Map<String, Integer> ids = HashMap.newHashMap(givers);
+        for(String key : result.keySet()){
+            if(key.endsWith(SEPARATOR)) continue;
+            names[ids.size()] = key;
+            ids.put(key, ids.size());
+        }
+        this.giverToRecipient = new int[givers];
+        Arrays.fill(giverToRecipient, NONE);
+        int matched = 0;
+        for(Map.Entry<String, List<String>> entry : result.entrySet()){
+            String key = entry.getKey();
+            if(!key.endsWith(SEPARATOR)) continue;
+            List<String> values = entry.getValue();
+            if(values.size() > 1) throw new IllegalStateException("Error");
+            if(values.size() == 1){
+                giverToRecipient[ids.get(values.get(0))] = ids.get(key.substring(0, key.length() - SEPARATOR.length()));
+                matched++;
+            }
+        }
+        this.unmatchedCount = givers - matched;
+        this.violation = null;
     }
 
-    public Map<String, String> getSolution()
+    private SecretSantaSolution(String[] names, int[] giverToRecipient, HallViolation violation)
+    {
+        this.names = names;
+        this.giverToRecipient = giverToRecipient;
+        int unmatchedCount = 0;
+        for(int recipient : giverToRecipient){
+            if(recipient < 0) unmatchedCount++;
+        }
+        this.unmatchedCount = unmatchedCount;
+        this.violation = violation;
+    }
+
+    /**
+     * Creates a solution from a matching over int ids. Takes ownership of the recipients array.
+     * @param names The name of each participant, by id. Can be shared between solutions.
+     * @param recipients The id of the recipient of each giver, or a negative value if the giver is unmatched.
+     * @param violation The proof that no perfect matching exists, or null.
+     */
+    static SecretSantaSolution of(String[] names, int[] recipients, HallViolation violation)
     {
-        return solution;
+        return new SecretSantaSolution(names, recipients, violation);
     }
 
-    public boolean isSolved()
+    /**
+     * Creates a solution from a matching over names.
+     * @param givers All participants.
+     * @param recipients The recipient of each matched giver. Unmatched givers are absent.
+     */
+    static SecretSantaSolution of(Collection<String> givers, Map<String, String> recipients)
+    {
+        String[] names = givers.toArray(new String[0]);
+        Map<String, Integer> ids = HashMap.newHashMap(names.length);
+        for(int i = 0; i < names.length; i++){
+            ids.put(names[i], i);
+        }
+        int[] giverToRecipient = new int[names.length];
+        for(int i = 0; i < names.length; i++){
+            String recipient = recipients.get(names[i]);
+            giverToRecipient[i] = recipient == null ? NONE : ids.get(recipient);
+        }
+        return new SecretSantaSolution(names, giverToRecipient, null);
+    }
+
+    /**
+     * @return The amount of givers.
+     */
+    public int size()
     {
-        return solved;
+        return names.length;
     }
 
-    private Map<String, String> extractSolution(Map<String, List<String>> result)
+    /**
+     * @return The name of the participant with the given id.
+     */
+    public String nameOf(int id)
     {
-        Map<String, String> solution = new HashMap<>();
-        Set<String> solvedKeys = new HashSet<>();
-        for(String key : result.keySet()){
-            if(!key.contains(SEPARATOR)){
-                solvedKeys.add(key);
-                continue;
+        return names[id];
+    }
+
+    /**
+     * @return The id of the recipient of the giver with the given id, or a negative value if the giver is unmatched.
+     */
+    public int recipientOf(int giver)
+    {
+        return giverToRecipient[giver];
+    }
+
+    /**
+     * Returns the solution in its original form: every giver is mapped to its recipient followed by the
+     * {@link #SEPARATOR}, or to "No mapping found!" if it is unmatched. Built on the first call.
+     */
+    public Map<String, String> getSolution()
+    {
+        Map<String, String> view = solution;
+        if(view == null){
+            view = HashMap.newHashMap(names.length);
+            for(int giver = 0; giver < names.length; giver++){
+                int recipient = giverToRecipient[giver];
+                view.put(names[giver], recipient < 0 ? NO_MAPPING : names[recipient] + SEPARATOR);
             }
-            List<String> values = result.get(key);
-            if(values.size() == 1) solution.put(values.get(0), key);
-            if(values.size() > 1) throw new IllegalStateException("Error");
+            view = Collections.unmodifiableMap(view);
+            solution = view;
         }
-        for(String key : solvedKeys){
-            if(solution.containsKey(key)) continue;
-            solution.put(key, "No mapping found!");
+        return view;
+    }
+
+    /**
+     * Returns every matched giver mapped to its recipient. Built on the first call.
+     */
+    public Map<String, String> getAssignment()
+    {
+        Map<String, String> view = assignment;
+        if(view == null){
+            view = HashMap.newHashMap(names.length - unmatchedCount);
+            for(int giver = 0; giver < names.length; giver++){
+                int recipient = giverToRecipient[giver];
+                if(recipient >= 0) view.put(names[giver], names[recipient]);
+            }
+            view = Collections.unmodifiableMap(view);
+            assignment = view;
         }
-        return solution;
+        return view;
     }
 
-    private boolean isSolved(Map<String, String> mapping)
+    /**
+     * Returns the givers without a recipient. Built on the first call.
+     */
+    public Set<String> getUnmatched()
     {
-        for(String key : mapping.keySet()){
-            if(mapping.get(key).equals("No mapping found!")) return false;
+        Set<String> view = unmatched;
+        if(view == null){
+            view = HashSet.newHashSet(unmatchedCount);
+            for(int giver = 0; giver < names.length; giver++){
+                if(giverToRecipient[giver] < 0) view.add(names[giver]);
+            }
+            view = Collections.unmodifiableSet(view);
+            unmatched = view;
         }
-        return true;
+        return view;
+    }
+
+    public boolean isSolved()
+    {
+        return unmatchedCount == 0;
+    }
+
+    /**
+     * @return The proof that no perfect matching exists, or null if the solution is solved or no proof was derived.
+     */
+    public HallViolation getViolation()
+    {
+        return violation;
     }
 }
@@ -0,0 +1,404 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Searches for an assignment that forms a single cycle through all participants (a Hamiltonian cycle), so there
+ * are no closed subgroups.
+ * <p>
+ * A perfect assignment is a set of disjoint cycles. First, the cycles of the assignment found by {@link HopcroftKarp}
+ * are merged: if giver u of one cycle may gift the recipient of giver w of another cycle, and w may gift the recipient
+ * of u, swapping their recipients joins both cycles. This often leaves a single cycle.
+ * <p>
+ * Otherwise, a depth-first search extends a path from participant 0, preferring the merged assignment, then the
+ * participants with the fewest options left. The visited participants are kept in a bitset. For every unvisited
+ * participant, it tracks how many participants can still gift it and how many it can still gift, and it backtracks
+ * as soon as either drops to zero. Only an exhausted search proves that there is no single cycle, but on large graphs
+ * it rarely ends, so it is bounded in steps.
+ * <p>
+ * Then a local search makes random alternating-cycle moves on the merged assignment, as {@link AssignmentSampler}
+ * does, keeps the moves that do not add cycles, and tries to merge the cycles again after each, until the time
+ * budget runs out.
+ */
+final class SingleCycleSearch
+{
+    private static final int NONE = HopcroftKarp.NONE;
+    private static final int CLOCK_INTERVAL = 4_096;
+    /**
+     * Bounds the steps of the exhaustive search before switching to local search, per participant.
+     */
+    private static final int SEARCH_STEPS_PER_VERTEX = 100;
+    /**
+     * Is returned if the time budget ran out.
+     */
+    static final int[] TIMED_OUT = new int[0];
+
+    private final int n;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] sourceOffsets;
+    private final int[] sources;
+    private final long deadline;
+
+    private SingleCycleSearch(Instance instance, long deadline)
+    {
+        this.n = instance.size();
+        this.offsets = instance.offsets;
+        this.targets = instance.targets.clone();
+        for(int u = 0; u < n; u++){
+            Arrays.sort(targets, offsets[u], offsets[u + 1]);
+        }
+        this.sourceOffsets = new int[n + 1];
+        for(int target : targets){
+            sourceOffsets[target + 1]++;
+        }
+        for(int v = 0; v < n; v++){
+            sourceOffsets[v + 1] += sourceOffsets[v];
+        }
+        this.sources = new int[targets.length];
+        int[] fill = Arrays.copyOf(sourceOffsets, n);
+        for(int u = 0; u < n; u++){
+            for(int edge = offsets[u]; edge < offsets[u + 1]; edge++){
+                sources[fill[targets[edge]]++] = u;
+            }
+        }
+        this.deadline = deadline;
+    }
+
+    /**
+     * Searches for a single cycle through all participants of the given instance.
+     * @param instance The instance.
+     * @param budgetNanos The time budget, in nanoseconds.
+     *
+     * @return The recipient of every giver, null if there is no single cycle, or {@link #TIMED_OUT}.
+     */
+    static int[] find(Instance instance, long budgetNanos)
+    {
+        SingleCycleSearch search = new SingleCycleSearch(instance, System.nanoTime() + budgetNanos);
+        return search.find();
+    }
+
+    private int[] find()
+    {
+        if(n == 0) return new int[0];
+        if(!reachesAll(offsets, targets) || !reachesAll(sourceOffsets, sources)) return null;
+        HopcroftKarp engine = new HopcroftKarp(n, offsets, targets);
+        engine.warmStart();
+        if(engine.run() != n) return null;
+        int[] recipientOf = engine.pairU;
+        int[] giverOf = engine.pairV;
+        if(mergeCycles(recipientOf, giverOf)) return recipientOf;
+        int[] found = search(recipientOf, (long) SEARCH_STEPS_PER_VERTEX * n);
+        if(found != TIMED_OUT) return found;
+        if(improve(recipientOf, giverOf)) return recipientOf;
+        return TIMED_OUT;
+    }
+
+    /**
+     * @return True if every participant is reachable from participant 0 over the given edges.
+     */
+    private boolean reachesAll(int[] rowOffsets, int[] neighbours)
+    {
+        boolean[] reached = new boolean[n];
+        int[] queue = new int[n];
+        int tail = 0;
+        reached[0] = true;
+        queue[tail++] = 0;
+        for(int head = 0; head < tail; head++){
+            int u = queue[head];
+            for(int edge = rowOffsets[u]; edge < rowOffsets[u + 1]; edge++){
+                if(!reached[neighbours[edge]]){
+                    reached[neighbours[edge]] = true;
+                    queue[tail++] = neighbours[edge];
+                }
+            }
+        }
+        return tail == n;
+    }
+
+    private boolean hasEdge(int start, int end)
+    {
+        return Arrays.binarySearch(targets, offsets[start], offsets[start + 1], end) >= 0;
+    }
+
+    /**
+     * Merges the cycles of the given assignment by swapping recipients between cycles, until no swap is possible.
+     *
+     * @return True if a single cycle remains. False otherwise.
+     */
+    private boolean mergeCycles(int[] recipientOf, int[] giverOf)
+    {
+        int[] cycleOf = new int[n];
+        Arrays.fill(cycleOf, NONE);
+        int cycles = 0;
+        for(int u = 0; u < n; u++){
+            if(cycleOf[u] != NONE) continue;
+            for(int w = u; cycleOf[w] == NONE; w = recipientOf[w]){
+                cycleOf[w] = cycles;
+            }
+            cycles++;
+        }
+        int[] parent = new int[cycles];
+        for(int c = 0; c < cycles; c++){
+            parent[c] = c;
+        }
+        boolean merged = true;
+        while(cycles > 1 && merged){
+            merged = false;
+            for(int u = 0; u < n && cycles > 1; u++){
+                for(int edge = offsets[u]; edge < offsets[u + 1]; edge++){
+                    int w = giverOf[targets[edge]];
+                    int cycleU = find(parent, cycleOf[u]);
+                    int cycleW = find(parent, cycleOf[w]);
+                    if(cycleU == cycleW || !hasEdge(w, recipientOf[u])) continue;
+                    int recipient = recipientOf[u];
+                    recipientOf[u] = recipientOf[w];
+                    recipientOf[w] = recipient;
+                    giverOf[recipientOf[u]] = u;
+                    giverOf[recipientOf[w]] = w;
+                    parent[cycleW] = cycleU;
+                    cycles--;
+                    merged = true;
+                    if(cycles == 1) break;
+                }
+            }
+        }
+        return cycles == 1;
+    }
+
+    private static int find(int[] parent, int c)
+    {
+        while(parent[c] != c){
+            parent[c] = parent[parent[c]];
+            c = parent[c];
+        }
+        return c;
+    }
+
+    /**
+     * Makes random alternating-cycle moves on the given assignment that do not add cycles, and merges its cycles after
+     * every move, until a single cycle remains or the time budget runs out.
+     *
+     * @return True if a single cycle remains. False otherwise.
+     */
+    private boolean improve(int[] recipientOf, int[] giverOf)
+    {
+        SplittableRandom random = new SplittableRandom(n);
+        int[] path = new int[n];
+        int[] previous = new int[n];
+        int[] visited = new int[n];
+        boolean[] seen = new boolean[n];
+        int cycles = countCycles(recipientOf, seen);
+        for(int stamp = 1; ; stamp++){
+            if(stamp % 64 == 0 && System.nanoTime() > deadline) return false;
+            int length = walk(random, recipientOf, giverOf, path, previous, visited, stamp);
+            if(length == 0) continue;
+            int moved = countCycles(recipientOf, seen);
+            if(moved > cycles){
+                for(int i = 0; i < length; i++){
+                    recipientOf[path[i]] = previous[i];
+                    giverOf[previous[i]] = path[i];
+                }
+                continue;
+            }
+            if(mergeCycles(recipientOf, giverOf)) return true;
+            cycles = countCycles(recipientOf, seen);
+        }
+    }
+
+    /**
+     * Walks an alternating cycle from a random giver, and rotates the recipients along it.
+     * @param path Is filled with the givers on the cycle.
+     * @param previous Is filled with the former recipient of every giver on the cycle.
+     *
+     * @return The amount of givers on the cycle, or 0 if the walk failed.
+     */
+    private int walk(SplittableRandom random, int[] recipientOf, int[] giverOf, int[] path, int[] previous,
+                     int[] visited, int stamp)
+    {
+        int start = random.nextInt(n);
+        int closing = recipientOf[start];
+        visited[start] = stamp;
+        int giver = start;
+        for(int length = 0; length < n; length++){
+            int degree = offsets[giver + 1] - offsets[giver];
+            int recipient = targets[offsets[giver] + random.nextInt(degree)];
+            if(recipient == recipientOf[giver]) return 0;
+            path[length] = giver;
+            previous[length] = recipientOf[giver];
+            if(recipient == closing){
+                for(int i = 0; i < length; i++){
+                    recipientOf[path[i]] = previous[i + 1];
+                    giverOf[previous[i + 1]] = path[i];
+                }
+                recipientOf[path[length]] = closing;
+                giverOf[closing] = path[length];
+                return length + 1;
+            }
+            giver = giverOf[recipient];
+            if(visited[giver] == stamp) return 0;
+            visited[giver] = stamp;
+        }
+        return 0;
+    }
+
+    private int countCycles(int[] recipientOf, boolean[] seen)
+    {
+        Arrays.fill(seen, false);
+        int cycles = 0;
+        for(int u = 0; u < n; u++){
+            if(seen[u]) continue;
+            cycles++;
+            for(int w = u; !seen[w]; w = recipientOf[w]){
+                seen[w] = true;
+            }
+        }
+        return cycles;
+    }
+
+    /**
+     * Runs the depth-first search for a cycle from participant 0.
+     * @param hint The merged assignment, whose edges are tried first.
+     * @param maxSteps The amount of steps after which the search gives up.
+     *
+     * @return The recipient of every giver, null if there is no single cycle, or {@link #TIMED_OUT}.
+     */
+    private int[] search(int[] hint, long maxSteps)
+    {
+        long[] visited = new long[(n + 63) >>> 6];
+        // The amount of unvisited participants, or the end of the path, that can gift each participant.
+        int[] inCount = new int[n];
+        // The amount of unvisited participants, or participant 0, that each participant can gift.
+        int[] outCount = new int[n];
+        for(int u = 0; u < n; u++){
+            inCount[u] = sourceOffsets[u + 1] - sourceOffsets[u];
+            outCount[u] = offsets[u + 1] - offsets[u];
+        }
+        int[] path = new int[n];
+        int[][] candidates = new int[n][];
+        int[] candidateCount = new int[n];
+        int[] nextCandidate = new int[n];
+        set(visited, 0);
+        path[0] = 0;
+        int depth = 0;
+        fillCandidates(0, 0, visited, outCount, hint, candidates, candidateCount);
+        nextCandidate[0] = 0;
+        long steps = 0;
+        while(depth >= 0){
+            if(++steps > maxSteps || steps % CLOCK_INTERVAL == 0 && System.nanoTime() > deadline) return TIMED_OUT;
+            int u = path[depth];
+            if(depth == n - 1){
+                if(hasEdge(u, 0)){
+                    int[] recipientOf = new int[n];
+                    for(int i = 0; i < n; i++){
+                        recipientOf[path[i]] = path[(i + 1) % n];
+                    }
+                    return recipientOf;
+                }
+            }else if(nextCandidate[depth] < candidateCount[depth]){
+                int v = candidates[depth][nextCandidate[depth]++];
+                if(advance(u, v, visited, inCount, outCount)){
+                    path[++depth] = v;
+                    fillCandidates(depth, v, visited, outCount, hint, candidates, candidateCount);
+                    nextCandidate[depth] = 0;
+                }else{
+                    retreat(u, v, visited, inCount, outCount);
+                }
+                continue;
+            }
+            if(depth > 0){
+                retreat(path[depth - 1], u, visited, inCount, outCount);
+            }
+            depth--;
+        }
+        return null;
+    }
+
+    /**
+     * Stores the unvisited successors of the end of the path at the given depth: the hinted recipient first, then
+     * by ascending amount of options left.
+     */
+    private void fillCandidates(int depth, int u, long[] visited, int[] outCount, int[] hint, int[][] candidates,
+                                int[] candidateCount)
+    {
+        int degree = offsets[u + 1] - offsets[u];
+        if(candidates[depth] == null || candidates[depth].length < degree){
+            candidates[depth] = new int[degree];
+        }
+        int[] list = candidates[depth];
+        int count = 0;
+        for(int edge = offsets[u]; edge < offsets[u + 1]; edge++){
+            int v = targets[edge];
+            if(isSet(visited, v)) continue;
+            int rank = rankOf(v, u, outCount, hint);
+            int i = count++;
+            while(i > 0 && rankOf(list[i - 1], u, outCount, hint) > rank){
+                list[i] = list[i - 1];
+                i--;
+            }
+            list[i] = v;
+        }
+        candidateCount[depth] = count;
+    }
+
+    private static int rankOf(int v, int u, int[] outCount, int[] hint)
+    {
+        return v == hint[u] ? -1 : outCount[v];
+    }
+
+    /**
+     * Extends the path from u to v, and updates the counts.
+     *
+     * @return False if some participant can no longer be gifted or gift. True otherwise.
+     */
+    private boolean advance(int u, int v, long[] visited, int[] inCount, int[] outCount)
+    {
+        set(visited, v);
+        boolean feasible = outCount[v] > 0;
+        for(int edge = offsets[u]; edge < offsets[u + 1]; edge++){
+            int x = targets[edge];
+            if(x == v || (isSet(visited, x) && x != 0)) continue;
+            if(--inCount[x] == 0) feasible = false;
+        }
+        for(int edge = sourceOffsets[v]; edge < sourceOffsets[v + 1]; edge++){
+            int y = sources[edge];
+            if(isSet(visited, y)) continue;
+            if(--outCount[y] == 0) feasible = false;
+        }
+        return feasible;
+    }
+
+    /**
+     * Undoes {@link #advance(int, int, long[], int[], int[])}.
+     */
+    private void retreat(int u, int v, long[] visited, int[] inCount, int[] outCount)
+    {
+        for(int edge = offsets[u]; edge < offsets[u + 1]; edge++){
+            int x = targets[edge];
+            if(x == v || (isSet(visited, x) && x != 0)) continue;
+            inCount[x]++;
+        }
+        for(int edge = sourceOffsets[v]; edge < sourceOffsets[v + 1]; edge++){
+            int y = sources[edge];
+            if(isSet(visited, y)) continue;
+            outCount[y]++;
+        }
+        clear(visited, v);
+    }
+
+    private static void set(long[] bits, int index)
+    {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private static void clear(long[] bits, int index)
+    {
+        bits[index >>> 6] &= ~(1L << index);
+    }
+
+    private static boolean isSet(long[] bits, int index)
+    {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+}
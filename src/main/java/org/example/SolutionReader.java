@@ -0,0 +1,151 @@
+package org.example;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Reads solutions in the line format written by {@link SolutionWriter}, one solution at a time.
+ * Blank lines are skipped. Every recipient must also be a giver of the same solution.
+ */
+public final class SolutionReader implements Closeable, Iterable<SecretSantaSolution>
+{
+    private final BufferedReader in;
+    private int lineNumber;
+
+    /**
+     * Creates a new {@link SolutionReader}.
+     * @param reader The reader to read from. Cannot be null. Is closed when this reader is closed.
+     */
+    public SolutionReader(Reader reader)
+    {
+        Objects.requireNonNull(reader, "Reader is null.");
+        this.in = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader, 1 << 16);
+    }
+
+    /**
+     * Creates a new {@link SolutionReader} that reads from the given UTF-8 file.
+     * @param path The path. Cannot be null.
+     *
+     * @throws IOException If the file could not be opened.
+     */
+    public SolutionReader(Path path) throws IOException
+    {
+        this(Files.newBufferedReader(Objects.requireNonNull(path, "Path is null."), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads all solutions in the given file.
+     * @param path The path. Cannot be null.
+     *
+     * @return The solutions, in the order of the file.
+     * @throws IOException If the file could not be read, or holds an invalid solution.
+     */
+    public static List<SecretSantaSolution> readAll(Path path) throws IOException
+    {
+        try(SolutionReader reader = new SolutionReader(path)){
+            List<SecretSantaSolution> solutions = new ArrayList<>();
+            SecretSantaSolution solution;
+            while((solution = reader.read()) != null){
+                solutions.add(solution);
+            }
+            return solutions;
+        }
+    }
+
+    /**
+     * Reads the next solution.
+     *
+     * @return The solution, or null if all solutions were read.
+     * @throws IOException If the input could not be read, or holds an invalid solution.
+     */
+    public SecretSantaSolution read() throws IOException
+    {
+        String line;
+        do{
+            line = in.readLine();
+            if(line == null) return null;
+            lineNumber++;
+            line = line.strip();
+        }while(line.isEmpty());
+        if(line.charAt(0) != '{' || line.charAt(line.length() - 1) != '}')
+            throw new IOException("Invalid solution at line " + lineNumber + ": missing braces.");
+        Map<String, String> recipients = new LinkedHashMap<>();
+        int start = 1;
+        int end = line.length() - 1;
+        while(start < end){
+            int comma = line.indexOf(',', start);
+            if(comma < 0 || comma > end) comma = end;
+            if(comma > start){
+                int colon = line.indexOf(':', start);
+                if(colon < 0 || colon > comma)
+                    throw new IOException("Invalid solution at line " + lineNumber + ": missing colon.");
+                String giver = line.substring(start, colon);
+                String recipient = line.substring(colon + 1, comma);
+                if(recipient.equals(SolutionWriter.UNMATCHED)){
+                    recipient = null;
+                }else if(recipient.endsWith(SolutionWriter.RECIPIENT_SUFFIX)){
+                    recipient = recipient.substring(0, recipient.length() - SolutionWriter.RECIPIENT_SUFFIX.length());
+                }else{
+                    throw new IOException("Invalid solution at line " + lineNumber + ": invalid recipient " + recipient + ".");
+                }
+                if(recipients.containsKey(giver))
+                    throw new IOException("Invalid solution at line " + lineNumber + ": duplicate giver " + giver + ".");
+                recipients.put(giver, recipient);
+            }
+            start = comma + 1;
+        }
+        for(String recipient : recipients.values()){
+            if(recipient != null && !recipients.containsKey(recipient))
+                throw new IOException("Invalid solution at line " + lineNumber + ": unknown recipient " + recipient + ".");
+        }
+        return SecretSantaSolution.of(recipients.keySet(), recipients);
+    }
+
+    /**
+     * Returns an iterator that lazily reads the remaining solutions. Failures to read are thrown as
+     * {@link UncheckedIOException}.
+     */
+    @Override
+    public Iterator<SecretSantaSolution> iterator()
+    {
+        return new Iterator<>() {
+            private SecretSantaSolution next;
+
+            @Override
+            public boolean hasNext()
+            {
+                if(next == null){
+                    try{
+                        next = read();
+                    }catch(IOException e){
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public SecretSantaSolution next()
+            {
+                if(!hasNext())
+                    throw new NoSuchElementException("No solutions left.");
+                SecretSantaSolution solution = next;
+                next = null;
+                return solution;
+            }
+        };
+    }
+
+    /**
+     * Closes the underlying reader.
+     * @throws IOException If the reader could not be closed.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        in.close();
+    }
+}
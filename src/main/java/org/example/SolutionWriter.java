@@ -0,0 +1,105 @@
+package org.example;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Writes solutions in the line format of the solution files, one solution per line:
+ * <pre>
+ * {a:n2,b:a2,n:null,}
+ * </pre>
+ * Every giver is followed by its recipient marked with the {@link #RECIPIENT_SUFFIX}, or by "null" if it is unmatched.
+ * Solutions are written straight from their int ids, without building their {@link java.util.Map} views.
+ */
+public final class SolutionWriter implements Closeable, Flushable
+{
+    public final static String RECIPIENT_SUFFIX = "2";
+    final static String UNMATCHED = "null";
+
+    private final Writer out;
+    private boolean closed;
+
+    /**
+     * Creates a new {@link SolutionWriter}.
+     * @param out The writer to write to. Cannot be null. Is closed when this writer is closed.
+     */
+    public SolutionWriter(Writer out)
+    {
+        Objects.requireNonNull(out, "Writer is null.");
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out, 1 << 16);
+    }
+
+    /**
+     * Creates a new {@link SolutionWriter} that writes UTF-8 text to the given channel.
+     * @param channel The channel to write to. Cannot be null. Is closed when this writer is closed.
+     */
+    public SolutionWriter(WritableByteChannel channel)
+    {
+        this(Channels.newWriter(Objects.requireNonNull(channel, "Channel is null."), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a new {@link SolutionWriter} that writes to the given UTF-8 file, replacing its contents.
+     * @param path The path. Cannot be null.
+     *
+     * @throws IOException If the file could not be opened.
+     */
+    public SolutionWriter(Path path) throws IOException
+    {
+        this(Files.newBufferedWriter(Objects.requireNonNull(path, "Path is null."), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the given solution as a single line.
+     * @param solution The solution. Cannot be null.
+     *
+     * @throws IOException If the solution could not be written.
+     */
+    public void write(SecretSantaSolution solution) throws IOException
+    {
+        Objects.requireNonNull(solution, "Solution is null.");
+        if(closed)
+            throw new IllegalStateException("The writer is closed.");
+        out.write('{');
+        for(int giver = 0; giver < solution.size(); giver++){
+            out.write(solution.nameOf(giver));
+            out.write(':');
+            int recipient = solution.recipientOf(giver);
+            if(recipient < 0){
+                out.write(UNMATCHED);
+            }else{
+                out.write(solution.nameOf(recipient));
+                out.write(RECIPIENT_SUFFIX);
+            }
+            out.write(',');
+        }
+        out.write("}\n");
+    }
+
+    /**
+     * Flushes the buffered text to the underlying writer.
+     * @throws IOException If the text could not be written.
+     */
+    @Override
+    public void flush() throws IOException
+    {
+        out.flush();
+    }
+
+    /**
+     * Flushes and closes the underlying writer.
+     * @throws IOException If the writer could not be flushed or closed.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if(closed) return;
+        closed = true;
+        out.close();
+    }
+}
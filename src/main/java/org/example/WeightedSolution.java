@@ -0,0 +1,14 @@
+package org.example;
+
+/**
+ * Holds an assignment together with the sum of the weights of its edges.
+ * @param solution The assignment.
+ * @param cost The total weight, or {@link Long#MAX_VALUE} if the solution is not solved.
+ */
+public record WeightedSolution(SecretSantaSolution solution, long cost)
+{
+    public boolean isSolved()
+    {
+        return solution.isSolved();
+    }
+}
@@ -0,0 +1,90 @@
+package org.example;
+
+import graph.Graph;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that {@link AssignmentSampler} draws every perfect assignment equally often, on random graphs with uneven
+ * degrees that are small enough to enumerate all of their perfect assignments.
+ */
+public class AssignmentSamplerTest
+{
+    private static final int GRAPHS = 5;
+    private static final int PARTICIPANTS = 6;
+    private static final int DRAWS = 20_000;
+    private static final int MOVES_PER_DRAW = 30;
+
+    @Test
+    public void drawsAreUniformOverAllAssignments()
+    {
+        Random random = new Random(23);
+        int tested = 0;
+        while(tested < GRAPHS){
+            Graph<String> graph = randomGraph(random);
+            List<Map<String, String>> assignments = new ArrayList<>();
+            enumerate(graph, new ArrayList<>(graph.getVertices()), new HashMap<>(), new HashSet<>(), assignments);
+            if(assignments.size() < 2) continue;
+            tested++;
+            AssignmentSampler sampler = new AssignmentSampler(graph, tested);
+            sampler.setMovesPerDraw(MOVES_PER_DRAW);
+            Map<Map<String, String>, Integer> counts = new HashMap<>();
+            for(Map<String, String> assignment : assignments){
+                counts.put(assignment, 0);
+            }
+            for(int i = 0; i < DRAWS; i++){
+                Map<String, String> drawn = sampler.next().getAssignment();
+                assertTrue("Not a perfect assignment: " + drawn, counts.containsKey(drawn));
+                counts.merge(drawn, 1, Integer::sum);
+            }
+            double expected = (double) DRAWS / assignments.size();
+            double chiSquare = 0;
+            for(int count : counts.values()){
+                chiSquare += (count - expected) * (count - expected) / expected;
+            }
+            int freedom = assignments.size() - 1;
+            assertTrue("Chi-square " + chiSquare + " with " + freedom + " degrees of freedom for " + graph,
+                    chiSquare < freedom + 5 * Math.sqrt(2.0 * freedom));
+        }
+    }
+
+    /**
+     * Creates a graph in which later givers have more edges, so any bias towards high or low degrees shows.
+     */
+    private static Graph<String> randomGraph(Random random)
+    {
+        Graph<String> graph = new Graph<>();
+        for(int i = 0; i < PARTICIPANTS; i++){
+            graph.addVertex("v" + i);
+        }
+        for(int i = 0; i < PARTICIPANTS; i++){
+            for(int j = 0; j < PARTICIPANTS; j++){
+                if(i != j && random.nextInt(100) < 40 + 10 * i){
+                    graph.addEdge("v" + i, "v" + j);
+                }
+            }
+        }
+        return graph;
+    }
+
+    private static void enumerate(Graph<String> graph, List<String> givers, Map<String, String> assignment,
+                                  Set<String> taken, List<Map<String, String>> assignments)
+    {
+        if(assignment.size() == givers.size()){
+            assignments.add(new HashMap<>(assignment));
+            return;
+        }
+        String giver = givers.get(assignment.size());
+        for(String recipient : graph.getSuccessors(giver)){
+            if(taken.add(recipient)){
+                assignment.put(giver, recipient);
+                enumerate(graph, givers, assignment, taken, assignments);
+                assignment.remove(giver);
+                taken.remove(recipient);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.example;
+
+import graph.CsrGraph;
+import graph_io.GraphReader;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks that solving stops allocating once the {@link MatchingWorkspace} of the thread is warm: that
+ * {@link SecretSantaSelector#isSolvable(graph.IGraph)} allocates close to nothing, and that
+ * {@link SecretSantaSelector#solve(graph.IGraph)} only allocates its solution.
+ */
+public class MatchingWorkspaceTest
+{
+    private static final Path CORPUS = Path.of("src/test/java/configurations.csv");
+    private static final int WARM_UP_PASSES = 20;
+    /**
+     * The bytes an isSolvable call may allocate on average, to allow for the odd allocation of the JVM itself.
+     */
+    private static final double MAX_BYTES_PER_CHECK = 16;
+    /**
+     * The bytes of a solution without a violation: the solution object, plus an array of names and an array of
+     * recipients, each with a header and at most 8 bytes per participant.
+     */
+    private static final long SOLUTION_BYTES = 128;
+    private static final long SOLUTION_BYTES_PER_PARTICIPANT = 16;
+
+    @Test
+    public void warmWorkspaceOnlyAllocatesSolutions() throws IOException
+    {
+        assumeTrue("Allocation counters are not supported by this JVM.",
+                ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue("Allocation counters are disabled.", threads.isThreadAllocatedMemoryEnabled());
+        SecretSantaSelector selector = new SecretSantaSelector();
+        List<CsrGraph<String>> graphs = GraphReader.readAll(CORPUS).stream().map(CsrGraph::of).toList();
+        List<CsrGraph<String>> solvable = graphs.stream().filter(selector::isSolvable).toList();
+        long participants = 0;
+        for(CsrGraph<String> graph : solvable){
+            participants += graph.vertexCount();
+        }
+        for(int pass = 0; pass < WARM_UP_PASSES; pass++){
+            for(CsrGraph<String> graph : graphs){
+                selector.isSolvable(graph);
+                selector.solve(graph);
+            }
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for(CsrGraph<String> graph : graphs){
+            selector.isSolvable(graph);
+        }
+        double perCheck = (double) (threads.getCurrentThreadAllocatedBytes() - before) / graphs.size();
+        assertTrue("isSolvable allocated " + perCheck + " bytes per call.", perCheck <= MAX_BYTES_PER_CHECK);
+
+        before = threads.getCurrentThreadAllocatedBytes();
+        for(CsrGraph<String> graph : solvable){
+            assertTrue(selector.solve(graph).isSolved());
+        }
+        long solved = threads.getCurrentThreadAllocatedBytes() - before;
+        long bound = SOLUTION_BYTES * solvable.size() + SOLUTION_BYTES_PER_PARTICIPANT * participants;
+        assertTrue("solve allocated " + solved + " bytes, more than its " + bound + " bytes of solutions.",
+                solved <= bound);
+    }
+}
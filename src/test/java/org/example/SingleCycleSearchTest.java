@@ -0,0 +1,90 @@
+package org.example;
+
+import graph.Graph;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares {@link SecretSantaSelector#findSingleCycle(graph.IGraph, Duration)} with a brute-force search for a
+ * Hamiltonian cycle, on random graphs that are small enough to search exhaustively.
+ */
+public class SingleCycleSearchTest
+{
+    private static final int GRAPHS = 2_000;
+    private static final int MAX_PARTICIPANTS = 8;
+
+    @Test
+    public void agreesWithBruteForceOnSmallRandomGraphs()
+    {
+        Random random = new Random(9);
+        SecretSantaSelector selector = new SecretSantaSelector();
+        for(int i = 0; i < GRAPHS; i++){
+            Graph<String> graph = randomGraph(random, 1 + random.nextInt(MAX_PARTICIPANTS), 15 + random.nextInt(60));
+            CycleResult result = selector.findSingleCycle(graph, Duration.ofSeconds(5));
+            assertNotEquals("Graph " + i + " timed out.", CycleResult.Status.TIMED_OUT, result.status());
+            assertEquals("Graph " + i + ": " + graph, hasHamiltonianCycle(graph), result.isFound());
+            if(result.isFound()){
+                assertSingleCycle(graph, result.solution());
+            }
+        }
+    }
+
+    private static Graph<String> randomGraph(Random random, int n, int percentage)
+    {
+        Graph<String> graph = new Graph<>();
+        for(int i = 0; i < n; i++){
+            graph.addVertex("v" + i);
+        }
+        for(int i = 0; i < n; i++){
+            for(int j = 0; j < n; j++){
+                if(i != j && random.nextInt(100) < percentage){
+                    graph.addEdge("v" + i, "v" + j);
+                }
+            }
+        }
+        return graph;
+    }
+
+    private static boolean hasHamiltonianCycle(Graph<String> graph)
+    {
+        List<String> vertices = new ArrayList<>(graph.getVertices());
+        String start = vertices.get(0);
+        Set<String> visited = new HashSet<>(List.of(start));
+        return extend(graph, start, start, visited, vertices.size());
+    }
+
+    private static boolean extend(Graph<String> graph, String start, String last, Set<String> visited, int n)
+    {
+        if(visited.size() == n){
+            return graph.hasEdge(last, start);
+        }
+        for(String next : graph.getSuccessors(last)){
+            if(visited.add(next)){
+                if(extend(graph, start, next, visited, n)) return true;
+                visited.remove(next);
+            }
+        }
+        return false;
+    }
+
+    private static void assertSingleCycle(Graph<String> graph, SecretSantaSolution solution)
+    {
+        Map<String, String> assignment = solution.getAssignment();
+        assertEquals(graph.vertexCount(), assignment.size());
+        for(Map.Entry<String, String> entry : assignment.entrySet()){
+            assertTrue(graph.hasEdge(entry.getKey(), entry.getValue()));
+        }
+        String start = assignment.keySet().iterator().next();
+        String current = start;
+        int length = 0;
+        do{
+            current = assignment.get(current);
+            length++;
+        }while(!current.equals(start));
+        assertEquals(graph.vertexCount(), length);
+    }
+}